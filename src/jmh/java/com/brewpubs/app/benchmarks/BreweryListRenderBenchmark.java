@@ -0,0 +1,90 @@
+package com.brewpubs.app.benchmarks;
+
+import com.brewpubs.app.models.Brewery;
+import com.brewpubs.app.models.BreweryPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full Thymeleaf render of brewery-list.html (nav fragment included) for one page of breweries
+ * The model is built in memory → measures rendering only, not the database
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BreweryListRenderBenchmark {
+
+    @Param({"50", "200"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ITemplateEngine templateEngine;
+    private JakartaServletWebApplication webApplication;
+    private MockServletContext servletContext;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkDatabase.start("render_bench");
+        templateEngine = context.getBean(ITemplateEngine.class);
+        servletContext = new MockServletContext();
+        webApplication = JakartaServletWebApplication.buildApplication(servletContext);
+
+        List<Brewery> breweries = new ArrayList<>(pageSize);
+        for (int id = 1; id <= pageSize; id++) {
+            breweries.add(new Brewery(id, "Benchmark Brewery " + id, id + " Industrial Way, Portland, ME", "House Ale (IPA)"));
+        }
+        BreweryPage page = new BreweryPage(breweries, pageSize, 100_000);
+
+        // Same attributes BreweryListController puts in the Model
+        variables = new HashMap<>();
+        variables.put("currentPage", "breweries");
+        variables.put("breweryList", breweries);
+        variables.put("page", page);
+        variables.put("limit", pageSize);
+        variables.put("totalCount", page.getTotalCount());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String renderBreweryList() {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/breweries");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        WebContext webContext = new WebContext(webApplication.buildExchange(request, response), Locale.US, variables);
+        StringWriter html = new StringWriter(16 * 1024);
+        templateEngine.process("brewery-list", webContext, html);
+        return html.toString();
+    }
+}
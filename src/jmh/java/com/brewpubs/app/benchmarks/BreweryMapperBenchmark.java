@@ -0,0 +1,75 @@
+package com.brewpubs.app.benchmarks;
+
+import com.brewpubs.app.mappers.BreweryMapper;
+import com.brewpubs.app.models.Brewery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BreweryMapper straight to H2 (no service caches): what a cache miss costs
+ * insert is measured as throughput (rows/ms) at the given table size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BreweryMapperBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private BreweryMapper breweryMapper;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkDatabase.start("mapper_bench_" + rows);
+        BenchmarkDatabase.seed(context, rows);
+        breweryMapper = context.getBean(BreweryMapper.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Brewery> getAllBreweries() {
+        return breweryMapper.getAllBreweries();
+    }
+
+    @Benchmark
+    public Brewery getBreweryById() {
+        return breweryMapper.getBreweryById(ThreadLocalRandom.current().nextInt(1, rows + 1));
+    }
+
+    @Benchmark
+    public int getBreweryCount() {
+        return breweryMapper.getBreweryCount();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int insert() {
+        Brewery brewery = new Brewery("Insert Benchmark Brewery", "1 Industrial Way, Portland, ME", "Benchmark Ale (IPA)");
+        return breweryMapper.insert(brewery);
+    }
+}
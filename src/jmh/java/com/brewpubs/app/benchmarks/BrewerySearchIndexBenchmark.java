@@ -0,0 +1,72 @@
+package com.brewpubs.app.benchmarks;
+
+import com.brewpubs.app.models.Brewery;
+import com.brewpubs.app.services.BrewerySearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead search (GET /breweries?q=) straight against the index, no database
+ *
+ * - q=ipa:              a word in every 3rd brewery (the broad case: ~33k ids at 100k rows)
+ * - q=industrial wa:    two words, the second one a prefix
+ * - q=portland ipa:     two broad words (seeded from the rarer one)
+ * - q=brewery 99999:    one exact hit
+ * Target: well under 1 ms per search at rows=100000 with the default page size (limit=50)
+ *
+ *   ./mvnw -P benchmarks -DskipTests test-compile exec:exec@jmh -Djmh.args="BrewerySearchIndexBenchmark -p rows=100000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BrewerySearchIndexBenchmark {
+
+    private static final String[] STREETS = {"Industrial Way", "Congress St", "Fox St", "Commercial St", "Main St"};
+    private static final String[] TOWNS = {"Portland", "Freeport", "Biddeford", "Saco", "Brunswick"};
+    private static final String[] BEERS = {"Lunch (IPA)", "Daymark (Pale Ale)", "Allagash White", "Epiphany (IPA)",
+            "Black Cat (Stout)", "Zoe (Amber Ale)", "Neverender (Double IPA)"};
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Param({"ipa", "industrial wa", "portland ipa", "brewery 99999"})
+    public String q;
+
+    @Param({"50"})
+    public int limit;
+
+    private BrewerySearchIndex index;
+
+    @Setup
+    public void setUp() {
+        List<Brewery> breweries = new ArrayList<>(rows);
+        for (int id = 1; id <= rows; id++) {
+            breweries.add(new Brewery(id, "Brewery " + id,
+                    id + " " + STREETS[id % STREETS.length] + ", " + TOWNS[id / 7 % TOWNS.length] + ", ME",
+                    BEERS[id % BEERS.length]));
+        }
+        index = new BrewerySearchIndex();
+        index.rebuild(breweries);
+    }
+
+    @Benchmark
+    public List<Integer> search() {
+        return index.search(q, limit);
+    }
+}
@@ -0,0 +1,67 @@
+package com.brewpubs.app.benchmarks;
+
+import com.brewpubs.app.models.Brewery;
+import com.brewpubs.app.services.BreweryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BreweryService read paths as the controllers call them (i.e. WITH the service's catalog snapshot/counters)
+ * Table size is a parameter: -p rows=1000,100000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BreweryServiceBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private BreweryService breweryService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkDatabase.start("service_bench_" + rows);
+        BenchmarkDatabase.seed(context, rows);
+        breweryService = context.getBean(BreweryService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Brewery> getAllBreweries() {
+        return breweryService.getAllBreweries();
+    }
+
+    @Benchmark
+    public Brewery getBreweryById() {
+        return breweryService.getBreweryById(ThreadLocalRandom.current().nextInt(1, rows + 1));
+    }
+
+    @Benchmark
+    public int getBreweryCount() {
+        return breweryService.getBreweryCount();
+    }
+}
@@ -0,0 +1,60 @@
+package com.brewpubs.app.benchmarks;
+
+import com.brewpubs.app.services.StripedTokenBucketLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention on the POST /register rate limiter: admission decisions per second with N threads
+ *
+ * - stripes=1 is the "one global lock" baseline; 256 is the default
+ * - clients=1: every thread hammers the same address (one hot stripe, the worst case for striping)
+ *   clients=1000000: a flood of distinct addresses (spread over all stripes, eviction at work)
+ *
+ * Thread count = cores in use; run once per count and compare throughput:
+ *   for t in 1 2 4 8 max; do ./mvnw -P benchmarks -DskipTests test-compile exec:exec@jmh \
+ *       -Djmh.args="RegistrationRateLimiterBenchmark -t $t -rf json -rff target/jmh-rate-limit-t$t.json"; done
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrationRateLimiterBenchmark {
+
+    @Param({"1", "256"})
+    public int stripes;
+
+    @Param({"1", "1000", "1000000"})
+    public int clients;
+
+    private StripedTokenBucketLimiter limiter;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() {
+        limiter = new StripedTokenBucketLimiter(5, 10 / 60.0, stripes, 1_000_000);
+        addresses = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            addresses[i] = "10." + (i >>> 16 & 0xFF) + "." + (i >>> 8 & 0xFF) + "." + (i & 0xFF);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return limiter.tryAcquire(addresses[ThreadLocalRandom.current().nextInt(clients)]);
+    }
+}
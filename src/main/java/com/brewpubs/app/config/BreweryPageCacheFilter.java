@@ -0,0 +1,125 @@
+package com.brewpubs.app.config;
+
+/**
+ * Created by Rajiv Shankar on 12/23/25 @ 10:20 AM.
+ */
+
+import com.brewpubs.app.services.BoundedTtlCache;
+import com.brewpubs.app.services.BreweryService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * DATA-VERSIONED PAGE CACHE for the brewery pages (/, /breweries, /breweries/near)
+ *
+ * The HTML of these pages depends ONLY on the URL and the brewery data, and BreweryService
+ * bumps a data version on every write. So for a GET:
+ *
+ * 1. ETag = "<startup id>-<data version>"
+ * 2. Browser sends If-None-Match with the same ETag → 304 Not Modified (no query, no render, no body)
+ * 3. Rendered HTML for (URL, version) already cached → send the cached bytes (no query, no render)
+ * 4. Otherwise render normally, remember the bytes for this (URL, version), send them with the ETag
+ *
+ * A write changes the version → new ETags, and old cache entries are simply never asked for again
+ * (they age out of the bounded cache).
+ *
+ * The startup id keeps ETags from one run from matching pages of the next (the version restarts at 1).
+ */
+@Component
+public class BreweryPageCacheFilter extends OncePerRequestFilter {
+
+    private static final Set<String> CACHED_PATHS = Set.of("/", "/breweries", "/breweries/near");
+
+    private final BreweryService breweryService;
+    private final BoundedTtlCache<String, CachedPage> renderedPages;
+    private final String startupId = Long.toString(System.currentTimeMillis(), 36);
+
+    public BreweryPageCacheFilter(BreweryService breweryService,
+                                  @Value("${brewpubs.page-cache.max-entries:500}") int maxEntries,
+                                  @Value("${brewpubs.page-cache.ttl-ms:600000}") long ttlMillis) {
+        this.breweryService = breweryService;
+        this.renderedPages = new BoundedTtlCache<>(maxEntries, ttlMillis);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !CACHED_PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        long version = breweryService.getDataVersion();
+        String etag = "\"" + startupId + "-" + version + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");  // browser may keep it, but must revalidate
+
+        // 1. Client already has this version
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        // 2. Rendered before for this version
+        String key = version + " " + request.getRequestURI() + "?" + request.getQueryString();
+        CachedPage cached = renderedPages.getIfPresent(key);
+        if (cached != null) {
+            response.setContentType(cached.contentType);
+            response.setContentLength(cached.body.length);
+            response.getOutputStream().write(cached.body);
+            return;
+        }
+
+        // 3. Render, then remember the HTML (only a 200, and only if no write happened meanwhile)
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && breweryService.getDataVersion() == version) {
+            renderedPages.put(key, new CachedPage(wrapper.getContentType(), wrapper.getContentAsByteArray()));
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    /**
+     * If-None-Match may list several ETags ("a", "b") or be "*"
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);  // weak comparison is fine for a GET
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public BoundedTtlCache.Stats getStats() {
+        return renderedPages.getStats();
+    }
+
+    private static final class CachedPage {
+        final String contentType;
+        final byte[] body;
+
+        CachedPage(String contentType, byte[] body) {
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.brewpubs.app.config;
+
+/**
+ * Created by Rajiv Shankar on 1/19/26 @ 9:30 AM.
+ */
+
+import org.mybatis.spring.mapper.MapperFactoryBean;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.MergedBeanDefinitionPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+
+/**
+ * FAST-START (Spring AOT) support for MyBatis mappers - see the 'fast-start' profile in pom.xml
+ *
+ * WHY: with AOT, bean definitions are turned into Java code at build time, so every bean's type must be
+ * known from its definition alone. MyBatis registers each @Mapper as a raw MapperFactoryBean whose
+ * sqlSessionTemplate is filled in by "autowire by type" - neither survives code generation:
+ * - the generated definition doesn't say it produces a BreweryMapper → injecting BreweryMapper fails
+ * - the autowired property is not in the generated code → the mapper has no SqlSession
+ *
+ * FIX (runs for every mapper definition, in AOT and in regular startups alike):
+ * - target type MapperFactoryBean<BreweryMapper> (from the definition's mapperInterface)
+ * - explicit reference to the "sqlSessionTemplate" bean MyBatis' auto-configuration creates
+ * Regular (non-AOT) startups end up with exactly the same wiring they had before.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MyBatisAotConfig {
+
+    private static final String SQL_SESSION_TEMPLATE = "sqlSessionTemplate";
+
+    @Bean
+    static MergedBeanDefinitionPostProcessor mapperFactoryBeanTypes() {  // static: a post-processor, created early
+        return new MergedBeanDefinitionPostProcessor() {
+            @Override
+            public void postProcessMergedBeanDefinition(RootBeanDefinition definition, Class<?> beanType, String beanName) {
+                if (!definition.hasBeanClass() || !MapperFactoryBean.class.isAssignableFrom(definition.getBeanClass())) {
+                    return;
+                }
+                // the mapper scanner stores the interface as a Class here (and as a class NAME constructor argument)
+                if (!(definition.getPropertyValues().get("mapperInterface") instanceof Class<?> mapperType)) {
+                    return;
+                }
+                if (definition.getResolvableType().hasUnresolvableGenerics()) {
+                    ConstructorArgumentValues arguments = new ConstructorArgumentValues();
+                    arguments.addGenericArgumentValue(mapperType);
+                    definition.setConstructorArgumentValues(arguments);
+                    definition.setTargetType(ResolvableType.forClassWithGenerics(definition.getBeanClass(), mapperType));
+                }
+                if (!definition.getPropertyValues().contains("sqlSessionTemplate")
+                        && !definition.getPropertyValues().contains("sqlSessionFactory")) {
+                    definition.getPropertyValues().add("sqlSessionTemplate", new RuntimeBeanReference(SQL_SESSION_TEMPLATE));
+                }
+            }
+        };
+    }
+}
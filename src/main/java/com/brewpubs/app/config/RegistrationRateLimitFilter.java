@@ -0,0 +1,89 @@
+package com.brewpubs.app.config;
+
+/**
+ * Created by Rajiv Shankar on 1/20/26 @ 11:10 AM.
+ */
+
+import com.brewpubs.app.services.StripedTokenBucketLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client admission control for POST /register (token bucket per client address)
+ *
+ * WHY A FILTER?
+ * - it runs BEFORE Spring MVC: a rejected request never has its form body parsed, bound to a User,
+ *   validated, or checked against the Bloom filters / database → a 429 costs one map lookup
+ * - high precedence: also ahead of the page cache and the virtual-thread concurrency limit
+ *   (a client over its limit must not take one of the few concurrency permits)
+ *
+ * CLIENT ADDRESS = request.getRemoteAddr()
+ * Behind a load balancer / reverse proxy, set server.forward-headers-strategy=native so Tomcat
+ * replaces it with the X-Forwarded-For client (never trust the header ourselves: anyone can send it).
+ *
+ * Every other request (GET /register, all other URLs) passes straight through.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class RegistrationRateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final StripedTokenBucketLimiter limiter;
+
+    public RegistrationRateLimitFilter(
+            @Value("${brewpubs.register.rate-limit.enabled:true}") boolean enabled,
+            @Value("${brewpubs.register.rate-limit.capacity:5}") int capacity,
+            @Value("${brewpubs.register.rate-limit.refill-per-minute:10}") double refillPerMinute,
+            @Value("${brewpubs.register.rate-limit.stripes:256}") int stripes,
+            @Value("${brewpubs.register.rate-limit.max-keys:1000000}") int maxKeys) {
+        this.enabled = enabled;
+        this.limiter = new StripedTokenBucketLimiter(capacity, refillPerMinute / 60.0, stripes, maxKeys);
+        if (enabled) {
+            System.out.println("✅ POST /register rate limit: burst " + capacity + ", " + refillPerMinute
+                    + "/min per client address (" + limiter.getStripeCount() + " stripes, up to " + maxKeys + " clients)");
+        } else {
+            System.out.println("⚠️ POST /register rate limit disabled");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !"/register".equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        long waitNanos = limiter.tryAcquire(request.getRemoteAddr());
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        // cheap answer: no error page rendering, no session, just status + Retry-After
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(429);
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getOutputStream().write(("Too many registrations from your address, retry in "
+                + retryAfterSeconds + " s\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public StripedTokenBucketLimiter getLimiter() {
+        return limiter;
+    }
+}
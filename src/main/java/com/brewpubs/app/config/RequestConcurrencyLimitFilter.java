@@ -0,0 +1,78 @@
+package com.brewpubs.app.config;
+
+/**
+ * Created by Rajiv Shankar on 12/22/25 @ 9:50 AM.
+ */
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VIRTUAL-THREAD MODE ONLY: caps how many requests run at the same time
+ *
+ * WHY?
+ * - Platform threads: Tomcat's pool (server.tomcat.threads.max = 200) is itself the limit
+ * - Virtual threads: every request gets a thread, so 5,000 concurrent requests = 5,000 threads
+ *   all waiting inside Hikari for one of a few connections (and timing out after connection-timeout)
+ *
+ * This filter keeps the queue OUTSIDE the pool: at most maxConcurrent requests (derived from the
+ * Hikari pool size at startup, see VirtualThreadSizing) run at once; the rest wait briefly for a permit
+ * and get a cheap 503 + Retry-After if none frees up in time. Permits in use are on /metrics.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class RequestConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long admissionTimeoutMillis;
+
+    public RequestConcurrencyLimitFilter(
+            @Value("${brewpubs.virtual.max-concurrent-requests:64}") int maxConcurrent,
+            @Value("${brewpubs.virtual.admission-timeout-ms:1000}") long admissionTimeoutMillis) {
+        this.permits = new Semaphore(maxConcurrent, true);  // fair: first come, first served
+        this.maxConcurrent = maxConcurrent;
+        this.admissionTimeoutMillis = admissionTimeoutMillis;
+        System.out.println("✅ Virtual-thread mode: at most " + maxConcurrent + " concurrent requests");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(admissionTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server busy, please retry");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+}
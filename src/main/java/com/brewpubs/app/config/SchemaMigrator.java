@@ -0,0 +1,177 @@
+package com.brewpubs.app.config;
+
+/**
+ * Created by Rajiv Shankar on 1/9/26 @ 9:30 AM.
+ */
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileCopyUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * DURABLE MODE ONLY: versioned, incremental schema migrations (instead of schema.sql + data.sql)
+ *
+ * In-memory mode runs schema.sql (DROP + CREATE) and data.sql on every start.
+ * A database FILE must keep its data, so here:
+ * 1. Scripts live in classpath:db/migration, named V<version>__<description>.sql (V1__..., V2__...)
+ * 2. SCHEMA_HISTORY records every script already applied (version, checksum, when, how long)
+ * 3. At startup only the NEW scripts run, in version order, each in its own transaction
+ * → an up-to-date database costs one small SELECT at startup, however many breweries it holds
+ *
+ * RULES:
+ * - Never edit an applied script: its checksum is verified, a mismatch stops startup
+ *   (computed with LF line endings, so only real edits count - not a CRLF checkout)
+ * - Schema changes = a new V<n+1>__ script (and the same change in schema.sql for in-memory mode)
+ */
+@Component
+@ConditionalOnProperty(name = "brewpubs.db.migrations.enabled", havingValue = "true")
+public class SchemaMigrator implements InitializingBean {
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    private final DataSource dataSource;
+    private final String location;
+
+    public SchemaMigrator(DataSource dataSource,
+                          @Value("${brewpubs.db.migrations.location:classpath:db/migration}") String location) {
+        this.dataSource = dataSource;
+        this.location = location;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException, IOException {
+        long start = System.nanoTime();
+        List<Migration> migrations = findMigrations();
+        int applied = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            createHistoryTable(connection);
+            Map<Integer, Long> history = readHistory(connection);
+            for (Migration migration : migrations) {
+                Long checksum = history.get(migration.version);
+                if (checksum == null) {
+                    apply(connection, migration);
+                    applied++;
+                } else if (checksum != migration.checksum) {
+                    throw new IllegalStateException("Migration " + migration.script + " was changed after it was applied"
+                            + " (checksum " + checksum + " in SCHEMA_HISTORY, " + migration.checksum + " now)");
+                }
+            }
+        }
+        System.out.println("✅ Schema migrations: " + applied + " applied, " + (migrations.size() - applied)
+                + " already up to date (" + (System.nanoTime() - start) / 1_000_000 + " ms)");
+    }
+
+    // ========== STEPS ==========
+
+    private List<Migration> findMigrations() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(location + "/V*__*.sql");
+        List<Migration> migrations = new ArrayList<>();
+        for (Resource resource : resources) {
+            Matcher name = SCRIPT_NAME.matcher(resource.getFilename());
+            if (!name.matches()) {
+                continue;
+            }
+            String sql = FileCopyUtils.copyToString(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
+            CRC32 crc = new CRC32();
+            // line endings don't count: a CRLF checkout (Windows, core.autocrlf) must match the LF checksum
+            crc.update(sql.replace("\r\n", "\n").replace('\r', '\n').getBytes(StandardCharsets.UTF_8));
+            migrations.add(new Migration(Integer.parseInt(name.group(1)), name.group(2).replace('_', ' '),
+                    resource.getFilename(), crc.getValue(), resource));
+        }
+        migrations.sort(Comparator.comparingInt(migration -> migration.version));  // V10 after V9, not after V1
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version == migrations.get(i - 1).version) {
+                throw new IllegalStateException("Two migrations with version " + migrations.get(i).version);
+            }
+        }
+        return migrations;
+    }
+
+    private static void createHistoryTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS SCHEMA_HISTORY ("
+                    + "version INT PRIMARY KEY, "
+                    + "description VARCHAR(200) NOT NULL, "
+                    + "script VARCHAR(200) NOT NULL, "
+                    + "checksum BIGINT NOT NULL, "
+                    + "installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                    + "execution_ms BIGINT NOT NULL)");
+        }
+    }
+
+    private static Map<Integer, Long> readHistory(Connection connection) throws SQLException {
+        Map<Integer, Long> history = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT version, checksum FROM SCHEMA_HISTORY")) {
+            while (rows.next()) {
+                history.put(rows.getInt(1), rows.getLong(2));
+            }
+        }
+        return history;
+    }
+
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.resource, StandardCharsets.UTF_8));
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO SCHEMA_HISTORY (version, description, script, checksum, execution_ms) VALUES (?, ?, ?, ?, ?)")) {
+                insert.setInt(1, migration.version);
+                insert.setString(2, migration.description);
+                insert.setString(3, migration.script);
+                insert.setLong(4, migration.checksum);
+                insert.setLong(5, (System.nanoTime() - start) / 1_000_000);
+                insert.executeUpdate();
+            }
+            connection.commit();
+            System.out.println("✅ Applied migration " + migration.script);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();  // note: H2 commits DDL immediately, so keep one DDL change per script
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final String script;
+        final long checksum;
+        final Resource resource;
+
+        Migration(int version, String description, String script, long checksum, Resource resource) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+            this.checksum = checksum;
+            this.resource = resource;
+        }
+    }
+}
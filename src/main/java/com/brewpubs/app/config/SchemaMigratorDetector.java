@@ -0,0 +1,22 @@
+package com.brewpubs.app.config;
+
+/**
+ * Created by Rajiv Shankar on 1/9/26 @ 10:05 AM.
+ */
+
+import org.springframework.boot.sql.init.dependency.AbstractBeansOfTypeDatabaseInitializerDetector;
+
+import java.util.Set;
+
+/**
+ * Tells Spring Boot that SchemaMigrator initializes the database (registered in META-INF/spring.factories)
+ * → everything that depends on database initialization (MyBatis, and through it BreweryService's
+ *   startup load and UserService's Bloom filters) is created only after the migrations ran
+ */
+public class SchemaMigratorDetector extends AbstractBeansOfTypeDatabaseInitializerDetector {
+
+    @Override
+    protected Set<Class<?>> getDatabaseInitializerBeanTypes() {
+        return Set.of(SchemaMigrator.class);
+    }
+}
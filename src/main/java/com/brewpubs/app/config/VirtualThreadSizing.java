@@ -0,0 +1,53 @@
+package com.brewpubs.app.config;
+
+/**
+ * Created by Rajiv Shankar on 1/26/26 @ 9:15 AM.
+ */
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * VIRTUAL-THREAD MODE ONLY: works out the connection pool and the request limit from the machine
+ * (registered in META-INF/spring.factories; runs after application*.properties are loaded)
+ *
+ * SIZING POLICY (inputs in application-virtual.properties):
+ *   pool size               = cores × brewpubs.virtual.connections-per-core      (in-process H2 is CPU-bound)
+ *   max concurrent requests = pool size × brewpubs.virtual.requests-per-connection
+ *                             (rendering overlaps with queries, yet at most that many requests wait per connection)
+ * e.g. 8 cores → 16 connections, 64 concurrent requests; 2 cores → 4 connections, 16 requests
+ *
+ * Fixed numbers still win: brewpubs.virtual.pool-size / brewpubs.virtual.max-concurrent-requests > 0
+ * are used as they are (0 = derive).
+ */
+public class VirtualThreadSizing implements EnvironmentPostProcessor {
+
+    static final String POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+    static final String MAX_CONCURRENT = "brewpubs.virtual.max-concurrent-requests";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            return;  // platform threads: Tomcat's thread pool is the limit, nothing to derive
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        int poolSize = environment.getProperty("brewpubs.virtual.pool-size", Integer.class, 0);
+        if (poolSize <= 0) {
+            poolSize = cores * Math.max(1, environment.getProperty("brewpubs.virtual.connections-per-core", Integer.class, 2));
+        }
+        int maxConcurrent = environment.getProperty(MAX_CONCURRENT, Integer.class, 0);
+        if (maxConcurrent <= 0) {
+            maxConcurrent = poolSize * Math.max(1, environment.getProperty("brewpubs.virtual.requests-per-connection", Integer.class, 4));
+        }
+
+        // highest precedence: replaces the platform-mode pool size from application.properties
+        environment.getPropertySources().addFirst(new MapPropertySource("virtualThreadSizing",
+                Map.of(POOL_SIZE, poolSize, MAX_CONCURRENT, maxConcurrent)));
+        System.out.println("✅ Virtual-thread sizing: " + cores + " cores → " + poolSize + " connections, "
+                + maxConcurrent + " concurrent requests");
+    }
+}
@@ -0,0 +1,84 @@
+package com.brewpubs.app.config;
+
+/**
+ * Created by Rajiv Shankar on 1/8/26 @ 1:45 PM.
+ */
+
+import com.brewpubs.app.metrics.MetricsRegistry;
+import com.brewpubs.app.metrics.ViewRenderTimingInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.WebContentInterceptor;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring MVC additions on top of Spring Boot's defaults
+ * - ViewRenderTimingInterceptor: template render time per view (shown on /metrics)
+ * - /css/**: fingerprinted, long-cached, precompressed stylesheets (see below)
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final MetricsRegistry metricsRegistry;
+
+    public WebMvcConfig(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ViewRenderTimingInterceptor(metricsRegistry));
+        registry.addInterceptor(stylesheetCaching()).addPathPatterns("/css/**");
+    }
+
+    /**
+     * Only a FINGERPRINTED stylesheet URL (/css/home-<32 hex digits>.css) names content that never changes
+     * → cached for a year, immutable. The plain URL (/css/home.css) serves whatever the current file is
+     * → no-cache: the browser may keep it but revalidates (Last-Modified → 304) before using it again.
+     * (no-cache is the default here, for every /css path the fingerprint pattern doesn't match)
+     */
+    static WebContentInterceptor stylesheetCaching() {
+        WebContentInterceptor caching = new WebContentInterceptor();
+        caching.setCacheControl(CacheControl.noCache());
+        caching.addCacheMapping(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable(),
+                "/css/{file:[a-z0-9-]+-[0-9a-f]{32}\\.css}");
+        return caching;
+    }
+
+    /**
+     * STYLESHEETS (src/main/resources/static/css)
+     *
+     * - FINGERPRINT: templates write th:href="@{/css/home.css}" and the page gets /css/home-<md5 of content>.css
+     *   (VersionResourceResolver + ResourceUrlEncodingFilter). New CSS → new URL, so the fingerprinted URL
+     *   can be cached "forever": Cache-Control: public, max-age=1 year, immutable (no revalidation requests).
+     *   Cache-Control is set by stylesheetCaching(), which tells fingerprinted URLs from plain ones
+     * - PRECOMPRESSED: the build writes home.css.gz (maven-antrun-plugin in pom.xml);
+     *   EncodedResourceResolver sends it to browsers that accept gzip, with
+     *   Content-Encoding + Vary: Accept-Encoding, else the plain file
+     * - resourceChain(true): resolved files (per URL and encoding) are cached in memory
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/css/**")
+                .addResourceLocations("classpath:/static/css/")
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    /**
+     * Rewrites @{/css/...} links in rendered pages to their fingerprinted URLs
+     */
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+}
@@ -0,0 +1,215 @@
+package com.brewpubs.app.controllers;
+
+/**
+ * Created by Rajiv Shankar on 12/29/25 @ 10:05 AM.
+ */
+
+import com.brewpubs.app.models.Brewery;
+import com.brewpubs.app.models.BreweryBatchUpdateResult;
+import com.brewpubs.app.services.BreweryCatalogAggregates;
+import com.brewpubs.app.services.BreweryService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST API for partner integrations: /api/breweries (JSON instead of scraping the HTML pages)
+ *
+ * ENDPOINTS:
+ * GET    /api/breweries          → all breweries, STREAMED (Accept: application/x-ndjson for one object per line)
+ * GET    /api/breweries/{id}     → one brewery (404 if missing)
+ * GET    /api/breweries/stats    → brewery count + breweries per town and per beer style (kept up to date, no query)
+ * POST   /api/breweries          → create (201 + Location header)
+ * PUT    /api/breweries/{id}     → replace (404 if missing; 409 + current row if "version" is stale)
+ * POST   /api/breweries/batch-update → versioned update of many breweries in one batch
+ * GET    /api/breweries/changes  → live change feed (Server-Sent Events, see BreweryChangeFeedController)
+ * DELETE /api/breweries/{id}     → delete (204, or 404 if missing)
+ *
+ * STREAMING: the list endpoint never builds a List<Brewery>. Rows come one at a time from a MyBatis
+ * Cursor (BreweryService.forEachBrewery) and are written to the response as they arrive →
+ * flat memory for any catalog size, and the first bytes go out right after the first row.
+ *
+ * OPTIMISTIC CONCURRENCY: every brewery carries a "version". Send back the version you read and the
+ * update only applies if nobody changed the row in between (no row locks held while you edit);
+ * otherwise re-read and retry. Omitting "version" on PUT keeps the old last-writer-wins behavior.
+ */
+@RestController
+@RequestMapping("/api/breweries")
+public class BreweryApiController {
+
+    public static final String NDJSON = "application/x-ndjson";
+    private static final int FLUSH_EVERY_ROWS = 500;  // push bytes to the client regularly
+    private static final int MAX_BATCH_UPDATE = 1000;  // one JDBC batch per request, keep it bounded
+
+    private final BreweryService breweryService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter breweryWriter;  // no flush per row: we flush every FLUSH_EVERY_ROWS
+    private final Validator validator;         // @Valid doesn't reach into a List body
+
+    public BreweryApiController(BreweryService breweryService, ObjectMapper objectMapper, Validator validator) {
+        this.breweryService = breweryService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.breweryWriter = objectMapper.writerFor(Brewery.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // ========== LIST (STREAMED) ==========
+
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamNdjson() {
+        StreamingResponseBody body = out -> writeAll(out, false);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamJsonArray() {
+        StreamingResponseBody body = out -> writeAll(out, true);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Runs on the async response thread (outside the request thread); forEachBrewery opens its own
+     * read-only transaction there and keeps the cursor open while we write
+     */
+    private void writeAll(OutputStream out, boolean jsonArray) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        json.setRootValueSeparator(null);  // NDJSON: we write the '\n' ourselves
+        if (jsonArray) {
+            json.writeStartArray();
+        }
+        int[] written = {0};
+        try {
+            breweryService.forEachBrewery(brewery -> {
+                try {
+                    breweryWriter.writeValue(json, brewery);
+                    if (!jsonArray) {
+                        json.writeRaw('\n');
+                    }
+                    if (++written[0] % FLUSH_EVERY_ROWS == 0) {
+                        json.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);  // e.g. client disconnected → stop the cursor
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (jsonArray) {
+            json.writeEndArray();
+        }
+        json.close();
+    }
+
+    // ========== STATS ==========
+
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> getStats() {
+        BreweryCatalogAggregates.View stats = breweryService.getCatalogStats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("breweryCount", breweryService.getBreweryCount());
+        body.put("dataVersion", breweryService.getDataVersion());
+        body.put("towns", stats.getTowns());
+        body.put("styles", stats.getStyles());
+        return body;
+    }
+
+    // ========== SINGLE BREWERY ==========
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Brewery> getBrewery(@PathVariable Integer id) {
+        Brewery brewery = breweryService.getBreweryById(id);
+        return brewery == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(brewery);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Brewery> createBrewery(@Valid @RequestBody Brewery brewery) {
+        brewery.setBreweryId(null);  // ids are assigned by the database
+        breweryService.addBrewery(brewery);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}").buildAndExpand(brewery.getBreweryId()).toUri();
+        return ResponseEntity.created(location).body(brewery);
+    }
+
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Brewery> updateBrewery(@PathVariable Integer id, @Valid @RequestBody Brewery brewery) {
+        brewery.setBreweryId(id);  // the URL decides which brewery is updated
+        if (breweryService.updateBrewery(brewery) == 0) {
+            Brewery current = breweryService.getBreweryById(id);
+            if (current == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(current);  // stale version: here is the latest
+        }
+        return ResponseEntity.ok(brewery);  // with its new version
+    }
+
+    // ========== BATCH UPDATE ==========
+
+    /**
+     * Body: [{breweryId, version, name, address, signatureBeer, ...}, ...]
+     * 200 → {updated: [...with new versions], conflicts: [ids to re-read and retry], notFound: [ids]}
+     * 400 → {errors: {"[index]": "message", ...}} and nothing is saved
+     */
+    @PostMapping(value = "/batch-update", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> updateBreweries(@RequestBody List<Brewery> breweries) {
+        if (breweries.size() > MAX_BATCH_UPDATE) {
+            return ResponseEntity.badRequest().body(Map.of("errors",
+                    Map.of("batch", "at most " + MAX_BATCH_UPDATE + " breweries per request")));
+        }
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (int i = 0; i < breweries.size(); i++) {
+            Brewery brewery = breweries.get(i);
+            if (brewery.getBreweryId() == null || brewery.getVersion() == null) {
+                errors.put("[" + i + "]", "breweryId and version are required");
+                continue;
+            }
+            for (ConstraintViolation<Brewery> violation : validator.validate(brewery)) {
+                errors.merge("[" + i + "]", violation.getPropertyPath() + ": " + violation.getMessage(),
+                        (a, b) -> a + "; " + b);
+            }
+        }
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("errors", errors));
+        }
+
+        BreweryBatchUpdateResult result = breweryService.updateBreweries(breweries);
+        return ResponseEntity.ok(result);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteBrewery(@PathVariable Integer id) {
+        if (breweryService.deleteBrewery(id) == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
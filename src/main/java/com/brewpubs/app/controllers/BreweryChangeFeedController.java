@@ -0,0 +1,101 @@
+package com.brewpubs.app.controllers;
+
+/**
+ * Created by Rajiv Shankar on 1/15/26 @ 11:20 AM.
+ */
+
+import com.brewpubs.app.models.BreweryChangeEvent;
+import com.brewpubs.app.services.BreweryChangeFeed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/breweries/changes - Server-Sent Events stream of brewery changes (instead of polling /breweries)
+ *
+ * EVENTS (event name = type, id = "<epoch>-<seq>", data = JSON BreweryChangeEvent):
+ *   created / updated → data.brewery is the brewery as saved (with its new version)
+ *   deleted           → data.breweryId only
+ *   reloaded          → bulk import: re-fetch /api/breweries
+ *   reset             → you missed events we no longer have: re-fetch /api/breweries, deltas follow
+ *
+ * RESUMING: browsers' EventSource sends "Last-Event-ID" automatically when it reconnects;
+ * other clients can pass it as ?lastEventId=. Missed events are replayed from the feed's history.
+ *
+ * One virtual thread per subscriber drains its buffer into the response; it sends a comment line
+ * every heartbeat-ms so proxies keep idle connections open. Connections end after
+ * emitter-timeout-ms (or when the subscriber falls too far behind) - the client just reconnects.
+ */
+@RestController
+public class BreweryChangeFeedController {
+
+    private final BreweryChangeFeed changeFeed;
+    private final long heartbeatMillis;
+    private final long emitterTimeoutMillis;
+
+    public BreweryChangeFeedController(BreweryChangeFeed changeFeed,
+                                       @Value("${brewpubs.changes.heartbeat-ms:15000}") long heartbeatMillis,
+                                       @Value("${brewpubs.changes.emitter-timeout-ms:1800000}") long emitterTimeoutMillis) {
+        this.changeFeed = changeFeed;
+        this.heartbeatMillis = heartbeatMillis;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+    }
+
+    @GetMapping(value = "/api/breweries/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                              @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        BreweryChangeFeed.Subscription subscription = changeFeed.subscribe(lastEventId);
+
+        emitter.onCompletion(() -> changeFeed.unsubscribe(subscription));
+        emitter.onTimeout(() -> changeFeed.unsubscribe(subscription));
+        emitter.onError(e -> changeFeed.unsubscribe(subscription));
+
+        Thread.ofVirtual().name("brewery-changes-sse").start(() -> send(emitter, subscription));
+        return emitter;
+    }
+
+    // ========== SENDER (one per subscriber) ==========
+
+    private void send(SseEmitter emitter, BreweryChangeFeed.Subscription subscription) {
+        try {
+            if (subscription.needsReset()) {
+                long resetAt = subscription.getResetAt();
+                emitter.send(SseEmitter.event()
+                        .id(changeFeed.eventId(resetAt))
+                        .name("reset")
+                        .data(Map.of("seq", resetAt), MediaType.APPLICATION_JSON));
+            }
+            while (!subscription.isClosed()) {
+                if (subscription.isOverflowed()) {
+                    emitter.complete();  // too slow: the client reconnects and resumes from its last id
+                    return;
+                }
+                BreweryChangeEvent event = subscription.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(changeFeed.eventId(event.getSeq()))
+                            .name(event.getType().name().toLowerCase())
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } catch (Exception e) {
+            // client went away (IOException) or the emitter already completed/timed out (IllegalStateException)
+        } finally {
+            changeFeed.unsubscribe(subscription);
+        }
+    }
+}
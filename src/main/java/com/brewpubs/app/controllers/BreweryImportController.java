@@ -0,0 +1,53 @@
+package com.brewpubs.app.controllers;
+
+/**
+ * Created by Rajiv Shankar on 12/19/25 @ 2:05 PM.
+ */
+
+import com.brewpubs.app.models.ImportReport;
+import com.brewpubs.app.services.BreweryImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Bulk catalog import (weekly refresh)
+ *
+ * USAGE:
+ * curl -X POST -H "Content-Type: text/csv" --data-binary @breweries.csv http://localhost:8080/api/breweries/import
+ * curl -X POST -H "Content-Type: application/x-ndjson" --data-binary @breweries.ndjson http://localhost:8080/api/breweries/import
+ *
+ * The request body is streamed straight into the importer (no multipart buffering, no temp file)
+ * Returns an ImportReport as JSON
+ */
+@RestController  // @Controller + @ResponseBody: return values are written as JSON, not view names
+public class BreweryImportController {
+
+    private final BreweryImportService breweryImportService;
+
+    public BreweryImportController(BreweryImportService breweryImportService) {
+        this.breweryImportService = breweryImportService;
+    }
+
+    @PostMapping(value = "/api/breweries/import", consumes = "text/csv")
+    public ImportReport importCsv(HttpServletRequest request) throws IOException {
+        return breweryImportService.importBreweries(request.getInputStream(), BreweryImportService.Format.CSV);
+    }
+
+    @PostMapping(value = "/api/breweries/import", consumes = "application/x-ndjson")
+    public ImportReport importNdjson(HttpServletRequest request) throws IOException {
+        return breweryImportService.importBreweries(request.getInputStream(), BreweryImportService.Format.NDJSON);
+    }
+
+    // Bad CSV header (e.g. no 'name' column) → 400 with the reason, not a 500
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String badImportFile(IllegalArgumentException e) {
+        return e.getMessage();
+    }
+}
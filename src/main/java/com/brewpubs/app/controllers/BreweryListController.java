@@ -4,10 +4,18 @@ package com.brewpubs.app.controllers;
  * Created by Rajiv Shankar on 11/14/25 @ 12:55 PM.
  */
 
+import com.brewpubs.app.models.Brewery;
+import com.brewpubs.app.models.BreweryPage;
+import com.brewpubs.app.models.NearbyBrewery;
 import com.brewpubs.app.services.BreweryService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * manages requests to /breweries page
@@ -20,8 +28,18 @@ public class BreweryListController {
         this.breweryService = breweryService;
     }
 
+    /**
+     * GET /breweries?after={lastBreweryId}&limit={pageSize}
+     * - after: brewery_id of the last card on the previous page (omit for the first page)
+     * - limit: page size (defaults to BreweryService.DEFAULT_PAGE_SIZE, capped at MAX_PAGE_SIZE)
+     * - q: optional search text (name, address or signature beer, word prefixes OK: "ipa", "industrial wa")
+     */
     @GetMapping("/breweries")
-    public String listBreweries(Model model) {  // Model (Spring class): holds data — objects that represent app's information
+    public String listBreweries(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer after,
+            @RequestParam(defaultValue = "" + BreweryService.DEFAULT_PAGE_SIZE) int limit,
+            Model model) {  // Model (Spring class): holds data — objects that represent app's information
 
 /*
         // ❌ PROBLEM: Creating data IN the controller i/o using a service layer (BreweryService.java)
@@ -67,11 +85,47 @@ public class BreweryListController {
 */
         // for navigation bar
         model.addAttribute("currentPage", "breweries");
-        // Use BreweryService to get brewery data
-        model.addAttribute("breweryList", breweryService.getAllBreweries());
-        model.addAttribute("totalCount", breweryService.getBreweryCount());
+
+        // SEARCH: answered from the in-memory index, not the database
+        if (q != null && !q.isBlank()) {
+            List<Brewery> matches = breweryService.searchBreweries(q, limit);
+            model.addAttribute("q", q);
+            model.addAttribute("breweryList", matches);
+            model.addAttribute("totalCount", matches.size());
+            return "brewery-list";
+        }
+
+        // Use BreweryService to get ONE PAGE of brewery data (never the whole table)
+        // The page already carries the total → one service call, no separate COUNT query
+        BreweryPage page = breweryService.getBreweryPage(after, limit);
+        model.addAttribute("breweryList", page.getBreweries());
+        model.addAttribute("page", page);
+        model.addAttribute("limit", limit);
+        model.addAttribute("totalCount", page.getTotalCount());
 
         return "brewery-list";  // Show brewery-list.html
     }
-}
 
+    /**
+     * GET /breweries/near?lat=43.66&lon=-70.26&k=5
+     * Shows the k closest breweries (closest first) with their distance
+     */
+    @GetMapping("/breweries/near")
+    public String nearestBreweries(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "5") int k,
+            Model model) {
+        model.addAttribute("currentPage", "breweries");
+
+        List<NearbyBrewery> nearby = breweryService.findNearestBreweries(lat, lon, k);
+        List<Brewery> breweries = nearby.stream().map(NearbyBrewery::getBrewery).toList();
+        Map<Integer, Double> distances = new LinkedHashMap<>();  // brewery_id → km (for the template)
+        nearby.forEach(n -> distances.put(n.getBrewery().getBreweryId(), n.getDistanceKm()));
+
+        model.addAttribute("breweryList", breweries);
+        model.addAttribute("distances", distances);
+        model.addAttribute("totalCount", breweries.size());
+        return "brewery-list";
+    }
+}
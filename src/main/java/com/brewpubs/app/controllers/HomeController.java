@@ -39,8 +39,10 @@ public class HomeController {
         model.addAttribute("stateName", "Maine");
 
         // model.addAttribute("breweryCount", 20);
-        // dynamic: get brewery count from service layer
+        // dynamic: get brewery count from service layer (in-memory counter, no COUNT query)
         model.addAttribute("breweryCount", breweryService.getBreweryCount());
+        // breakdowns per town / beer style: maintained by BreweryService on every write (no GROUP BY here)
+        model.addAttribute("catalogStats", breweryService.getCatalogStats());
 
         return "home";  // render home.html template with model data
     }
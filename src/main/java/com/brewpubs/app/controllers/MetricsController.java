@@ -0,0 +1,289 @@
+package com.brewpubs.app.controllers;
+
+/**
+ * Created by Rajiv Shankar on 1/8/26 @ 2:30 PM.
+ */
+
+import com.brewpubs.app.config.BreweryPageCacheFilter;
+import com.brewpubs.app.config.RegistrationRateLimitFilter;
+import com.brewpubs.app.config.RequestConcurrencyLimitFilter;
+import com.brewpubs.app.metrics.LatencyHistogram;
+import com.brewpubs.app.metrics.MetricsRegistry;
+import com.brewpubs.app.services.BoundedTtlCache;
+import com.brewpubs.app.services.BreweryChangeFeed;
+import com.brewpubs.app.services.BreweryInvalidationBus;
+import com.brewpubs.app.services.BreweryService;
+import com.brewpubs.app.services.StripedTokenBucketLimiter;
+import com.brewpubs.app.services.UserService;
+import com.brewpubs.app.services.UserWriteBehindQueue;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * GET /metrics - everything we measure, for a local scraper (or curl)
+ *
+ * - Accept: text/plain (default, Prometheus text format) → one line per value
+ * - Accept: application/json                             → same numbers as JSON
+ *
+ * CONTENTS:
+ * - per-method timers (mappers, services, controllers) and per-view render timers:
+ *   p50/p95/p99, call count, error count, total and max time
+ * - page cache, Bloom filters, the registration write-behind queue and the brewery change feed
+ * - POST /register rate limit: admitted / rejected (429) requests, tracked client addresses
+ * - invalidation bus: messages published/received and publish → applied lag (multi-instance)
+ * - virtual-thread mode only: request permits (max and in use) of RequestConcurrencyLimitFilter
+ *
+ * All latencies are in seconds; all counts are since startup.
+ */
+@RestController
+public class MetricsController {
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+    private static final String PROMETHEUS_TEXT = "text/plain;version=0.0.4;charset=utf-8";
+
+    private final MetricsRegistry metricsRegistry;
+    private final BreweryService breweryService;
+    private final UserService userService;
+    private final UserWriteBehindQueue userWriteBehindQueue;
+    private final BreweryPageCacheFilter pageCacheFilter;
+    private final BreweryChangeFeed changeFeed;
+    private final BreweryInvalidationBus invalidationBus;
+    private final RegistrationRateLimitFilter registrationRateLimit;
+    private final RequestConcurrencyLimitFilter concurrencyLimit;  // null in platform-thread mode
+
+    public MetricsController(MetricsRegistry metricsRegistry, BreweryService breweryService,
+                             UserService userService, UserWriteBehindQueue userWriteBehindQueue,
+                             BreweryPageCacheFilter pageCacheFilter, BreweryChangeFeed changeFeed,
+                             BreweryInvalidationBus invalidationBus, RegistrationRateLimitFilter registrationRateLimit,
+                             ObjectProvider<RequestConcurrencyLimitFilter> concurrencyLimit) {
+        this.metricsRegistry = metricsRegistry;
+        this.breweryService = breweryService;
+        this.userService = userService;
+        this.userWriteBehindQueue = userWriteBehindQueue;
+        this.pageCacheFilter = pageCacheFilter;
+        this.changeFeed = changeFeed;
+        this.invalidationBus = invalidationBus;
+        this.registrationRateLimit = registrationRateLimit;
+        this.concurrencyLimit = concurrencyLimit.getIfAvailable();
+    }
+
+    // ========== PROMETHEUS TEXT FORMAT ==========
+
+    @GetMapping(value = "/metrics", produces = PROMETHEUS_TEXT)
+    public String prometheus() {
+        StringBuilder out = new StringBuilder(16 * 1024);
+
+        out.append("# HELP brewpubs_method_duration_seconds Latency of mapper/service/controller methods and view rendering\n");
+        out.append("# TYPE brewpubs_method_duration_seconds summary\n");
+        for (MetricsRegistry.Timer timer : metricsRegistry.getTimers()) {
+            String labels = "layer=\"" + timer.getLayer() + "\",name=\"" + timer.getName() + "\"";
+            LatencyHistogram latency = timer.getLatency();
+            for (double quantile : QUANTILES) {
+                line(out, "brewpubs_method_duration_seconds", labels + ",quantile=\"" + quantile + "\"",
+                        seconds(latency.getPercentileNanos(quantile)));
+            }
+            line(out, "brewpubs_method_duration_seconds_sum", labels, seconds(latency.getTotalNanos()));
+            line(out, "brewpubs_method_duration_seconds_count", labels, latency.getCount());
+        }
+
+        out.append("# TYPE brewpubs_method_duration_seconds_max gauge\n");
+        for (MetricsRegistry.Timer timer : metricsRegistry.getTimers()) {
+            line(out, "brewpubs_method_duration_seconds_max",
+                    "layer=\"" + timer.getLayer() + "\",name=\"" + timer.getName() + "\"",
+                    seconds(timer.getLatency().getMaxNanos()));
+        }
+
+        out.append("# TYPE brewpubs_method_errors_total counter\n");
+        for (MetricsRegistry.Timer timer : metricsRegistry.getTimers()) {
+            line(out, "brewpubs_method_errors_total",
+                    "layer=\"" + timer.getLayer() + "\",name=\"" + timer.getName() + "\"", timer.getErrors());
+        }
+
+        // one block per metric family (the text format wants each family's lines together)
+        Map<String, BoundedTtlCache.Stats> caches = cacheStats();
+        out.append("# TYPE brewpubs_cache_hits_total counter\n");
+        caches.forEach((cache, stats) -> line(out, "brewpubs_cache_hits_total", "cache=\"" + cache + "\"", stats.getHits()));
+        out.append("# TYPE brewpubs_cache_misses_total counter\n");
+        caches.forEach((cache, stats) -> line(out, "brewpubs_cache_misses_total", "cache=\"" + cache + "\"", stats.getMisses()));
+        out.append("# TYPE brewpubs_cache_evictions_total counter\n");
+        caches.forEach((cache, stats) -> line(out, "brewpubs_cache_evictions_total", "cache=\"" + cache + "\"", stats.getEvictions()));
+        out.append("# TYPE brewpubs_cache_size gauge\n");
+        caches.forEach((cache, stats) -> line(out, "brewpubs_cache_size", "cache=\"" + cache + "\"", stats.getSize()));
+
+        out.append("# TYPE brewpubs_user_bloom_total counter\n");
+        line(out, "brewpubs_user_bloom_total", "outcome=\"definitely_new\"", userService.getFilterNegatives());
+        line(out, "brewpubs_user_bloom_total", "outcome=\"database_check\"", userService.getDatabaseChecks());
+        line(out, "brewpubs_user_bloom_total", "outcome=\"false_positive\"", userService.getFalsePositives());
+
+        out.append("# TYPE brewpubs_registration_queue_depth gauge\n");
+        line(out, "brewpubs_registration_queue_depth", null, userWriteBehindQueue.getQueueDepth());
+        out.append("# TYPE brewpubs_registration_queue_capacity gauge\n");
+        line(out, "brewpubs_registration_queue_capacity", null, userWriteBehindQueue.getQueueCapacity());
+        out.append("# TYPE brewpubs_registration_queue_total counter\n");
+        line(out, "brewpubs_registration_queue_total", "outcome=\"enqueued\"", userWriteBehindQueue.getEnqueued());
+        line(out, "brewpubs_registration_queue_total", "outcome=\"rejected\"", userWriteBehindQueue.getRejected());
+        line(out, "brewpubs_registration_queue_total", "outcome=\"written\"", userWriteBehindQueue.getWritten());
+        line(out, "brewpubs_registration_queue_total", "outcome=\"failed\"", userWriteBehindQueue.getFailed());
+        out.append("# TYPE brewpubs_registration_batches_total counter\n");
+        line(out, "brewpubs_registration_batches_total", null, userWriteBehindQueue.getBatches());
+        out.append("# TYPE brewpubs_registration_batch_size gauge\n");
+        line(out, "brewpubs_registration_batch_size", "stat=\"last\"", userWriteBehindQueue.getLastBatchSize());
+        line(out, "brewpubs_registration_batch_size", "stat=\"max\"", userWriteBehindQueue.getMaxBatchSize());
+        line(out, "brewpubs_registration_batch_size", "stat=\"avg\"", userWriteBehindQueue.getAverageBatchSize());
+
+        StripedTokenBucketLimiter limiter = registrationRateLimit.getLimiter();
+        out.append("# TYPE brewpubs_registration_rate_limit_total counter\n");
+        line(out, "brewpubs_registration_rate_limit_total", "outcome=\"admitted\"", limiter.getAdmitted());
+        line(out, "brewpubs_registration_rate_limit_total", "outcome=\"rejected\"", limiter.getRejected());
+        out.append("# TYPE brewpubs_registration_rate_limit_clients gauge\n");
+        line(out, "brewpubs_registration_rate_limit_clients", null, limiter.getTrackedKeys());
+        out.append("# TYPE brewpubs_registration_rate_limit_evictions_total counter\n");
+        line(out, "brewpubs_registration_rate_limit_evictions_total", null, limiter.getEvictions());
+
+        out.append("# TYPE brewpubs_change_feed_subscribers gauge\n");
+        line(out, "brewpubs_change_feed_subscribers", null, changeFeed.getSubscriberCount());
+        out.append("# TYPE brewpubs_change_feed_events_total counter\n");
+        line(out, "brewpubs_change_feed_events_total", null, changeFeed.getPublished());
+        out.append("# TYPE brewpubs_change_feed_overflows_total counter\n");
+        line(out, "brewpubs_change_feed_overflows_total", null, changeFeed.getOverflows());
+        out.append("# TYPE brewpubs_change_feed_resets_total counter\n");
+        line(out, "brewpubs_change_feed_resets_total", null, changeFeed.getResets());
+
+        out.append("# TYPE brewpubs_invalidations_total counter\n");
+        line(out, "brewpubs_invalidations_total", "direction=\"published\"", invalidationBus.getPublished());
+        line(out, "brewpubs_invalidations_total", "direction=\"received\"", invalidationBus.getReceived());
+        LatencyHistogram invalidationLag = invalidationBus.getLag();
+        out.append("# TYPE brewpubs_invalidation_lag_seconds summary\n");
+        for (double quantile : QUANTILES) {
+            line(out, "brewpubs_invalidation_lag_seconds", "quantile=\"" + quantile + "\"",
+                    seconds(invalidationLag.getPercentileNanos(quantile)));
+        }
+        line(out, "brewpubs_invalidation_lag_seconds_sum", null, seconds(invalidationLag.getTotalNanos()));
+        line(out, "brewpubs_invalidation_lag_seconds_count", null, invalidationLag.getCount());
+        out.append("# TYPE brewpubs_invalidation_lag_seconds_max gauge\n");
+        line(out, "brewpubs_invalidation_lag_seconds_max", null, seconds(invalidationLag.getMaxNanos()));
+
+        if (concurrencyLimit != null) {
+            out.append("# TYPE brewpubs_request_permits gauge\n");
+            line(out, "brewpubs_request_permits", "state=\"max\"", concurrencyLimit.getMaxConcurrent());
+            line(out, "brewpubs_request_permits", "state=\"in_use\"",
+                    concurrencyLimit.getMaxConcurrent() - concurrencyLimit.getAvailablePermits());
+        }
+
+        out.append("# TYPE brewpubs_breweries gauge\n");
+        line(out, "brewpubs_breweries", null, breweryService.getBreweryCount());
+        out.append("# TYPE brewpubs_data_version gauge\n");
+        line(out, "brewpubs_data_version", null, breweryService.getDataVersion());
+        return out.toString();
+    }
+
+    // ========== JSON ==========
+
+    @GetMapping(value = "/metrics", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> json() {
+        List<Map<String, Object>> timers = new ArrayList<>();
+        for (MetricsRegistry.Timer timer : metricsRegistry.getTimers()) {
+            LatencyHistogram latency = timer.getLatency();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("layer", timer.getLayer());
+            row.put("name", timer.getName());
+            row.put("calls", timer.getCalls());
+            row.put("errors", timer.getErrors());
+            row.put("p50Ms", millis(latency.getPercentileNanos(0.5)));
+            row.put("p95Ms", millis(latency.getPercentileNanos(0.95)));
+            row.put("p99Ms", millis(latency.getPercentileNanos(0.99)));
+            row.put("maxMs", millis(latency.getMaxNanos()));
+            row.put("totalMs", millis(latency.getTotalNanos()));
+            timers.add(row);
+        }
+
+        Map<String, Object> registrationQueue = new LinkedHashMap<>();
+        registrationQueue.put("depth", userWriteBehindQueue.getQueueDepth());
+        registrationQueue.put("capacity", userWriteBehindQueue.getQueueCapacity());
+        registrationQueue.put("enqueued", userWriteBehindQueue.getEnqueued());
+        registrationQueue.put("rejected", userWriteBehindQueue.getRejected());
+        registrationQueue.put("written", userWriteBehindQueue.getWritten());
+        registrationQueue.put("failed", userWriteBehindQueue.getFailed());
+        registrationQueue.put("batches", userWriteBehindQueue.getBatches());
+        registrationQueue.put("lastBatchSize", userWriteBehindQueue.getLastBatchSize());
+        registrationQueue.put("maxBatchSize", userWriteBehindQueue.getMaxBatchSize());
+        registrationQueue.put("averageBatchSize", userWriteBehindQueue.getAverageBatchSize());
+
+        Map<String, Object> bloom = new LinkedHashMap<>();
+        bloom.put("definitelyNew", userService.getFilterNegatives());
+        bloom.put("databaseChecks", userService.getDatabaseChecks());
+        bloom.put("falsePositives", userService.getFalsePositives());
+
+        StripedTokenBucketLimiter limiter = registrationRateLimit.getLimiter();
+        Map<String, Object> rateLimit = new LinkedHashMap<>();
+        rateLimit.put("enabled", registrationRateLimit.isEnabled());
+        rateLimit.put("admitted", limiter.getAdmitted());
+        rateLimit.put("rejected", limiter.getRejected());
+        rateLimit.put("trackedClients", limiter.getTrackedKeys());
+        rateLimit.put("evictions", limiter.getEvictions());
+
+        Map<String, Object> feed = new LinkedHashMap<>();
+        feed.put("subscribers", changeFeed.getSubscriberCount());
+        feed.put("lastSeq", changeFeed.getLastSeq());
+        feed.put("published", changeFeed.getPublished());
+        feed.put("overflows", changeFeed.getOverflows());
+        feed.put("resets", changeFeed.getResets());
+
+        LatencyHistogram lag = invalidationBus.getLag();
+        Map<String, Object> invalidations = new LinkedHashMap<>();
+        invalidations.put("nodeId", invalidationBus.getNodeId());
+        invalidations.put("published", invalidationBus.getPublished());
+        invalidations.put("received", invalidationBus.getReceived());
+        invalidations.put("lagP50Ms", millis(lag.getPercentileNanos(0.5)));
+        invalidations.put("lagP99Ms", millis(lag.getPercentileNanos(0.99)));
+        invalidations.put("lagMaxMs", millis(lag.getMaxNanos()));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timers", timers);
+        result.put("caches", cacheStats());
+        result.put("userBloomFilters", bloom);
+        result.put("registrationQueue", registrationQueue);
+        result.put("registrationRateLimit", rateLimit);
+        result.put("changeFeed", feed);
+        result.put("invalidationBus", invalidations);
+        if (concurrencyLimit != null) {
+            result.put("requestPermits", Map.of("max", concurrencyLimit.getMaxConcurrent(),
+                    "inUse", concurrencyLimit.getMaxConcurrent() - concurrencyLimit.getAvailablePermits()));
+        }
+        result.put("breweryCount", breweryService.getBreweryCount());
+        result.put("dataVersion", breweryService.getDataVersion());
+        return result;
+    }
+
+    // ========== HELPERS ==========
+
+    private Map<String, BoundedTtlCache.Stats> cacheStats() {
+        Map<String, BoundedTtlCache.Stats> caches = new LinkedHashMap<>();
+        caches.put("renderedPages", pageCacheFilter.getStats());
+        return caches;
+    }
+
+    private static void line(StringBuilder out, String name, String labels, Object value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e3) / 1e3;  // 3 decimals
+    }
+}
@@ -6,6 +6,7 @@ package com.brewpubs.app.controllers;
 
 import com.brewpubs.app.models.User;
 import com.brewpubs.app.services.BreweryService;
+import com.brewpubs.app.services.UserService;
 import jakarta.validation.Valid;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -24,22 +25,20 @@ import org.springframework.web.bind.annotation.PostMapping;
  * LAYERED ARCHITECTURE:
  * View: register.html, confirmation.html (Thymeleaf templates)
  * Controller: RegistrationController (HTTP request handling)
- * Service: UserService (would go here - see tomorrow)
+ * Service: UserService (accepts users, rejects duplicate usernames/emails; saved by UserWriteBehindQueue)
  * Model: User.java (data structure)
  */
 @Controller
 public class RegistrationController {
 
     private final BreweryService breweryService;  // injected service layer (for future use)
+    private final UserService userService;        // saves registrations
 
-    public RegistrationController(BreweryService breweryService) {  // dependency injection via constructor
+    public RegistrationController(BreweryService breweryService, UserService userService) {  // dependency injection via constructor
         this.breweryService = breweryService;
+        this.userService = userService;
     }
 
-// Future: Will inject UserService here
-// @Autowired
-// private UserService userService;
-
     /**
      * HANDLE GET REQUEST: Show blank registration form
      *
@@ -140,10 +139,23 @@ public class RegistrationController {
             return "register";
         }
 
-        // VALIDATION PASSED!
-        System.out.println("✅ Registration valid!");
-        System.out.println("  Username: " + user.getUsername());
-        System.out.println("  Email: " + user.getEmail());
+        // VALIDATION PASSED! → save, unless the username/email is already taken
+        switch (userService.register(user)) {
+            case USERNAME_TAKEN -> {
+                bindingResult.rejectValue("username", "duplicate", "Username is already taken");
+                return "register";
+            }
+            case EMAIL_TAKEN -> {
+                bindingResult.rejectValue("email", "duplicate", "An account with this email already exists");
+                return "register";
+            }
+            case BUSY -> {
+                // write-behind queue is full (back-pressure): nothing was saved
+                bindingResult.reject("busy", "We are getting a lot of registrations right now, please try again in a moment");
+                return "register";
+            }
+            case REGISTERED -> System.out.println("✅ Registration queued: " + user);
+        }
 
         model.addAttribute("user", user);
         return "confirmation";
@@ -0,0 +1,77 @@
+package com.brewpubs.app.controllers;
+
+/**
+ * Created by Rajiv Shankar on 1/12/26 @ 11:00 AM.
+ */
+
+import com.brewpubs.app.metrics.LatencyHistogram;
+import com.brewpubs.app.metrics.SlowQueryInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GET /metrics/slow-queries?limit=N (profiling mode only)
+ *
+ * - slowest:    the N slowest statement executions since startup, with SQL, parameters and EXPLAIN plan
+ * - statements: per-statement timing (calls, p50/p99, max, how often over the threshold), worst max first
+ */
+@RestController
+@ConditionalOnProperty(name = "brewpubs.slow-query.enabled", havingValue = "true")
+public class SlowQueryController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final SlowQueryInterceptor slowQueryInterceptor;
+
+    public SlowQueryController(SlowQueryInterceptor slowQueryInterceptor) {
+        this.slowQueryInterceptor = slowQueryInterceptor;
+    }
+
+    @GetMapping("/metrics/slow-queries")
+    public Map<String, Object> slowQueries(@RequestParam(defaultValue = "10") int limit) {
+        int n = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        List<Map<String, Object>> slowest = new ArrayList<>();
+        for (SlowQueryInterceptor.SlowQuery query : slowQueryInterceptor.getSlowestQueries(n)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("statement", query.getStatementId());
+            row.put("durationMs", millis(query.getDurationNanos()));
+            row.put("executedAt", query.getExecutedAt().toString());
+            row.put("sql", query.getSql());
+            row.put("parameters", String.valueOf(query.getParameters()));
+            row.put("plan", query.getPlan());
+            slowest.add(row);
+        }
+
+        List<Map<String, Object>> statements = new ArrayList<>();
+        for (SlowQueryInterceptor.StatementStats stats : slowQueryInterceptor.getStatementStats(n)) {
+            LatencyHistogram latency = stats.getLatency();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("statement", stats.getStatementId());
+            row.put("calls", latency.getCount());
+            row.put("slowCalls", stats.getSlowCount());
+            row.put("errors", stats.getErrors());
+            row.put("p50Ms", millis(latency.getPercentileNanos(0.5)));
+            row.put("p99Ms", millis(latency.getPercentileNanos(0.99)));
+            row.put("maxMs", millis(latency.getMaxNanos()));
+            statements.add(row);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("thresholdMs", slowQueryInterceptor.getThresholdMillis());
+        result.put("slowest", slowest);
+        result.put("statements", statements);
+        return result;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e3) / 1e3;
+    }
+}
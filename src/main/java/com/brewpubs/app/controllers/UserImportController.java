@@ -0,0 +1,54 @@
+package com.brewpubs.app.controllers;
+
+/**
+ * Created by Rajiv Shankar on 1/22/26 @ 2:15 PM.
+ */
+
+import com.brewpubs.app.models.UserImportReport;
+import com.brewpubs.app.services.UserImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Bulk user registration (partner attendee lists)
+ *
+ * USAGE:
+ * curl -X POST -H "Content-Type: text/csv" --data-binary @attendees.csv http://localhost:8080/api/users/import
+ * curl -X POST -H "Content-Type: application/x-ndjson" --data-binary @attendees.ndjson http://localhost:8080/api/users/import
+ *
+ * CSV needs a header row with 'username' and 'email' columns; NDJSON is one {"username":..,"email":..} per line
+ * The request body is streamed straight into the importer (no multipart buffering, no temp file)
+ * Returns a UserImportReport as JSON: per-line errors + rows/sec
+ */
+@RestController
+public class UserImportController {
+
+    private final UserImportService userImportService;
+
+    public UserImportController(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    @PostMapping(value = "/api/users/import", consumes = "text/csv")
+    public UserImportReport importCsv(HttpServletRequest request) throws IOException {
+        return userImportService.importUsers(request.getInputStream(), UserImportService.Format.CSV);
+    }
+
+    @PostMapping(value = "/api/users/import", consumes = "application/x-ndjson")
+    public UserImportReport importNdjson(HttpServletRequest request) throws IOException {
+        return userImportService.importUsers(request.getInputStream(), UserImportService.Format.NDJSON);
+    }
+
+    // Bad CSV header (e.g. no 'email' column) → 400 with the reason, not a 500
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String badImportFile(IllegalArgumentException e) {
+        return e.getMessage();
+    }
+}
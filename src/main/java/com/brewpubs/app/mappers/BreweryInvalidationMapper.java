@@ -0,0 +1,44 @@
+package com.brewpubs.app.mappers;
+
+/**
+ * Created by Rajiv Shankar on 1/16/26 @ 9:30 AM.
+ */
+
+import com.brewpubs.app.models.BreweryInvalidation;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * BreweryInvalidationMapper - the BREWERY_INVALIDATIONS log used by DatabasePollingInvalidationBus
+ *
+ * Append-only: every instance INSERTs a row per brewery write, and reads rows
+ * "after the last invalidation_id I've seen" (primary key range scan, no full-table read)
+ */
+@Mapper
+public interface BreweryInvalidationMapper {
+
+    @Insert("INSERT INTO BREWERY_INVALIDATIONS (origin_node, brewery_id, published_at) " +
+            "VALUES (#{originNode}, #{breweryId}, #{publishedAt})")
+    @Options(useGeneratedKeys = true, keyProperty = "invalidationId", keyColumn = "invalidation_id")
+    int insert(BreweryInvalidation invalidation);
+
+    /**
+     * @return Up to limit invalidations with invalidation_id > afterId, oldest first
+     */
+    @Select("SELECT invalidation_id, origin_node, brewery_id, published_at FROM BREWERY_INVALIDATIONS " +
+            "WHERE invalidation_id > #{afterId} ORDER BY invalidation_id LIMIT #{limit}")
+    List<BreweryInvalidation> findAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * @return The newest invalidation_id (0 if the log is empty) - where a starting instance begins reading
+     */
+    @Select("SELECT COALESCE(MAX(invalidation_id), 0) FROM BREWERY_INVALIDATIONS")
+    long findLastId();
+
+    /**
+     * Cleanup: every instance has long since read these
+     */
+    @Delete("DELETE FROM BREWERY_INVALIDATIONS WHERE published_at < #{before}")
+    int deleteOlderThan(long before);
+}
@@ -6,6 +6,8 @@ package com.brewpubs.app.mappers;
 
 import com.brewpubs.app.models.Brewery;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
 import java.util.List;
 
 /**
@@ -53,6 +55,32 @@ public interface BreweryMapper {
     @Select("SELECT COUNT(*) FROM BREWERIES")
     int getBreweryCount();
 
+    // ========== STREAMING READS ==========
+
+    /**
+     * Stream all breweries one row at a time
+     * @return Cursor that fetches rows lazily from the JDBC ResultSet (MUST be closed by the caller)
+     *
+     * A Cursor only lives as long as its SqlSession → call it inside a @Transactional method
+     * fetchSize: how many rows the driver pulls per round trip (not how many we keep in memory)
+     */
+    @Select("SELECT * FROM BREWERIES ORDER BY brewery_id")
+    @Options(fetchSize = 500)
+    Cursor<Brewery> streamAllBreweries();
+
+    /**
+     * Feed every row, in brewery_id order, to a handler (used to build BreweryCatalogSnapshot)
+     * @param handler Called once per row; the row object is dropped right after (no List is built)
+     *
+     * PROJECTION: names exactly the columns the snapshot stores instead of SELECT *,
+     * so columns added later aren't read (or mapped) for it
+     */
+    @Select("SELECT brewery_id, name, address, signature_beer, latitude, longitude, version " +
+            "FROM BREWERIES ORDER BY brewery_id")
+    @Options(fetchSize = 1000)
+    @ResultType(Brewery.class)
+    void scanCatalog(ResultHandler<Brewery> handler);
+
     // ========== CREATE OPERATIONS ==========
 
     /**
@@ -63,27 +91,45 @@ public interface BreweryMapper {
      * #{name} extracts brewery.getName()
      * #{address} extracts brewery.getAddress()
      * #{signatureBeer} extracts brewery.getSignatureBeer()
+     * #{latitude}, #{longitude} may be null (location unknown)
      *
      * @Options sets the auto-generated ID back to the Brewery object
      */
-    @Insert("INSERT INTO BREWERIES (name, address, signature_beer) " +
-            "VALUES (#{name}, #{address}, #{signatureBeer})")
+    @Insert("INSERT INTO BREWERIES (name, address, signature_beer, latitude, longitude) " +
+            "VALUES (#{name}, #{address}, #{signatureBeer}, #{latitude}, #{longitude})")
     @Options(useGeneratedKeys = true, keyProperty = "breweryId")
     int insert(Brewery brewery);
 
+    /**
+     * Insert used by the bulk importer (BATCH executor)
+     * Same SQL as insert() but WITHOUT useGeneratedKeys: reading keys back would cost
+     * an extra result set per row, and the importer doesn't need the new ids
+     */
+    @Insert("INSERT INTO BREWERIES (name, address, signature_beer, latitude, longitude) " +
+            "VALUES (#{name}, #{address}, #{signatureBeer}, #{latitude}, #{longitude})")
+    int insertForImport(Brewery brewery);
+
     // ========== UPDATE OPERATIONS ==========
 
     /**
-     * Update an existing brewery
-     * @param brewery Brewery with updated values (must have breweryId set)
-     * @return Number of rows affected
+     * COMPARE-AND-SET update: only if the row is still at the version the caller read
+     * @param brewery Brewery with updated values, breweryId AND the version it was read at
+     * @return 1 = updated (row is now at version + 1), 0 = someone else changed (or deleted) it first
+     *
+     * No SELECT ... FOR UPDATE: the version check and the write are one statement, so no lock
+     * is held between reading and writing - conflicting writers simply see 0 and retry
+     * The ONLY update statement: "last writer wins" callers go through BreweryService, which reads
+     * the current version and compare-and-sets against it, so no write skips the version check
      */
     @Update("UPDATE BREWERIES SET " +
             "name = #{name}, " +
             "address = #{address}, " +
-            "signature_beer = #{signatureBeer} " +
-            "WHERE brewery_id = #{breweryId}")
-    int update(Brewery brewery);
+            "signature_beer = #{signatureBeer}, " +
+            "latitude = #{latitude}, " +
+            "longitude = #{longitude}, " +
+            "version = version + 1 " +
+            "WHERE brewery_id = #{breweryId} AND version = #{version}")
+    int updateIfVersion(Brewery brewery);
 
     // ========== DELETE OPERATIONS ==========
 
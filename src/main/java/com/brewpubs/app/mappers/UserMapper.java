@@ -0,0 +1,53 @@
+package com.brewpubs.app.mappers;
+
+/**
+ * Created by Rajiv Shankar on 1/5/26 @ 11:10 AM.
+ */
+
+import com.brewpubs.app.models.User;
+import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * UserMapper - MyBatis interface for USERS table operations
+ *
+ * Same pattern as BreweryMapper: SQL in annotations, MyBatis generates the implementation
+ * Uniqueness of username/email is enforced by unique indexes in schema.sql
+ */
+@Mapper
+public interface UserMapper {
+
+    // ========== READ OPERATIONS ==========
+
+    /**
+     * Does a user with this username exist?
+     * @return 1 if taken, 0 if free (index seek on ux_users_username)
+     */
+    @Select("SELECT COUNT(*) FROM USERS WHERE username = #{username}")
+    int countByUsername(String username);
+
+    /**
+     * Does a user with this email exist?
+     * @return 1 if taken, 0 if free (index seek on ux_users_email)
+     */
+    @Select("SELECT COUNT(*) FROM USERS WHERE email = #{email}")
+    int countByEmail(String email);
+
+    /**
+     * Visit every username/email once, without building a List (used to rebuild the Bloom filters)
+     * @param handler Called once per row
+     */
+    @Select("SELECT username, email FROM USERS")
+    @Options(fetchSize = 1000)
+    @ResultType(User.class)
+    void scanUsernamesAndEmails(ResultHandler<User> handler);
+
+    // ========== CREATE OPERATIONS ==========
+
+    /**
+     * Insert used by the write-behind queue (BATCH executor, many users per commit)
+     * No useGeneratedKeys: nobody waits for the new id
+     */
+    @Insert("INSERT INTO USERS (username, email) VALUES (#{username}, #{email})")
+    int insertQueued(User user);
+}
@@ -0,0 +1,125 @@
+package com.brewpubs.app.metrics;
+
+/**
+ * Created by Rajiv Shankar on 1/8/26 @ 11:15 AM.
+ */
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.ibatis.annotations.Mapper;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Controller;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Times every public method of our mappers, services and controllers - without touching their code
+ *
+ * HOW: a BeanPostProcessor wraps each matching bean in a Spring AOP proxy (the same mechanism
+ * @Transactional uses). Every call goes through TimingInterceptor:
+ *     start = nanoTime → call the real method → record (duration, threw?) in the method's Timer
+ *
+ * WHICH BEANS (only in com.brewpubs.app):
+ * - @Mapper interfaces (BreweryMapper, UserMapper)  → layer "mapper"
+ * - @Service classes (BreweryService, UserService ...) → layer "service"
+ * - @Controller / @RestController classes           → layer "controller"
+ *
+ * NOTE: calls from a service to its own methods (this.foo()) don't go through the proxy, so only
+ * the outer call is timed. Streamed responses (StreamingResponseBody) are timed until the handler
+ * returns, not until the last byte is written.
+ */
+@Component
+public class MethodTimingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private static final long serialVersionUID = 1L;  // the base class is Serializable (ProxyConfig); never serialized
+    private static final String BASE_PACKAGE = "com.brewpubs.app.";
+
+    public MethodTimingPostProcessor(MetricsRegistry metricsRegistry) {
+        // plain field writes (no overridable calls): nothing sees a half-built 'this'
+        this.advisor = timingAdvisor(metricsRegistry);
+        this.beforeExistingAdvisors = true;  // outermost: include time spent in e.g. the transaction proxy
+    }
+
+    private static Advisor timingAdvisor(MetricsRegistry metricsRegistry) {
+        Pointcut pointcut = new Pointcut() {
+            @Override
+            public ClassFilter getClassFilter() {
+                return clazz -> layerOf(clazz) != null;
+            }
+
+            @Override
+            public MethodMatcher getMethodMatcher() {
+                return new StaticMethodMatcher() {
+                    @Override
+                    public boolean matches(Method method, Class<?> targetClass) {
+                        return Modifier.isPublic(method.getModifiers())
+                                && method.getDeclaringClass() != Object.class
+                                && layerOf(method.getDeclaringClass()) != null;
+                    }
+                };
+            }
+        };
+        return new DefaultPointcutAdvisor(pointcut, new TimingInterceptor(metricsRegistry));
+    }
+
+    /**
+     * @return "mapper", "service", "controller", or null for classes we don't time
+     */
+    static String layerOf(Class<?> clazz) {
+        Class<?> userClass = ClassUtils.getUserClass(clazz);  // CGLIB proxy → the real class
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(userClass)) {  // mapper proxy → BreweryMapper
+            if (type.getName().startsWith(BASE_PACKAGE) && type.isAnnotationPresent(Mapper.class)) {
+                return "mapper";
+            }
+        }
+        if (!userClass.getName().startsWith(BASE_PACKAGE)) {
+            return null;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(userClass, Service.class)) {
+            return "service";
+        }
+        if (AnnotatedElementUtils.hasAnnotation(userClass, Controller.class)) {  // also @RestController
+            return "controller";
+        }
+        return null;
+    }
+
+    private static final class TimingInterceptor implements MethodInterceptor {
+
+        private final MetricsRegistry metricsRegistry;
+        private final ConcurrentMap<Method, MetricsRegistry.Timer> timers = new ConcurrentHashMap<>();
+
+        TimingInterceptor(MetricsRegistry metricsRegistry) {
+            this.metricsRegistry = metricsRegistry;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            MetricsRegistry.Timer timer = timers.computeIfAbsent(invocation.getMethod(), method ->
+                    metricsRegistry.timer(layerOf(method.getDeclaringClass()),
+                            method.getDeclaringClass().getSimpleName() + "." + method.getName()));
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invocation.proceed();
+                failed = false;
+                return result;
+            } finally {
+                timer.record(System.nanoTime() - start, failed);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.brewpubs.app.metrics;
+
+/**
+ * Created by Rajiv Shankar on 1/8/26 @ 10:40 AM.
+ */
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MetricsRegistry - one Timer per instrumented method / view, created on first use
+ *
+ * A Timer is identified by (layer, name):
+ * - layer: "mapper", "service", "controller" or "view"
+ * - name:  "BreweryMapper.getAllBreweries", "BreweryListController.listBreweries", "brewery-list" ...
+ *
+ * Read by MetricsController (/metrics) for scraping.
+ * INFRASTRUCTURE role: MethodTimingPostProcessor needs it before ordinary beans exist
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class MetricsRegistry {
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public Timer timer(String layer, String name) {
+        return timers.computeIfAbsent(layer + " " + name, key -> new Timer(layer, name));
+    }
+
+    /**
+     * All timers, sorted by layer then name (stable output for diffs between scrapes)
+     */
+    public List<Timer> getTimers() {
+        List<Timer> sorted = new ArrayList<>(timers.values());
+        sorted.sort(Comparator.comparing(Timer::getLayer).thenComparing(Timer::getName));
+        return sorted;
+    }
+
+    /**
+     * Latency histogram + call count + error count for one method or view
+     */
+    public static class Timer {
+        private final String layer;
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        Timer(String layer, String name) {
+            this.layer = layer;
+            this.name = name;
+        }
+
+        /**
+         * @param nanos How long the call took
+         * @param failed true if it ended with an exception (still counted in the latency)
+         */
+        public void record(long nanos, boolean failed) {
+            latency.record(nanos);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        public String getLayer() {
+            return layer;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getCalls() {
+            return latency.getCount();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.brewpubs.app.metrics;
+
+/**
+ * Created by Rajiv Shankar on 1/12/26 @ 9:20 AM.
+ */
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PROFILING MODE ONLY: times every MyBatis statement and logs the slow ones with their EXPLAIN plan
+ *
+ * HOW: MyBatis plugins wrap the Executor; every query()/update() passes through intercept():
+ * 1. time the statement → per-statement stats (calls, p50/p99, max, slow count)
+ * 2. slower than threshold-ms → log it with its bound parameters and H2's EXPLAIN plan,
+ *    and keep it if it is among the top-N slowest executions since startup
+ *
+ * EXPLAIN runs the same SQL with the same parameters, prefixed with EXPLAIN, on the same connection
+ * (it only plans, it doesn't execute). Plans are captured at most once per statement per
+ * explain-interval so a slow statement under load doesn't trigger an EXPLAIN per call.
+ *
+ * Mybatis-spring-boot registers every Interceptor bean with the SqlSessionFactory automatically.
+ * NOTE: cursor queries (streamAllBreweries) and BATCH-executor inserts (flushed later) are not timed here.
+ */
+@Component
+@ConditionalOnProperty(name = "brewpubs.slow-query.enabled", havingValue = "true")
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class SlowQueryInterceptor implements Interceptor {
+
+    private final long thresholdNanos;
+    private final int keepSlowest;
+    private final long explainIntervalNanos;
+
+    private final ConcurrentMap<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CapturedPlan> plans = new ConcurrentHashMap<>();
+    private final PriorityQueue<SlowQuery> slowest =                          // min-heap: fastest of the slow on top
+            new PriorityQueue<>(Comparator.comparingLong(SlowQuery::getDurationNanos));
+
+    public SlowQueryInterceptor(@Value("${brewpubs.slow-query.threshold-ms:50}") long thresholdMillis,
+                                @Value("${brewpubs.slow-query.keep-slowest:50}") int keepSlowest,
+                                @Value("${brewpubs.slow-query.explain-interval-ms:60000}") long explainIntervalMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.keepSlowest = keepSlowest;
+        this.explainIntervalNanos = TimeUnit.MILLISECONDS.toNanos(explainIntervalMillis);
+        System.out.println("✅ Slow-query profiling on (threshold " + thresholdMillis + " ms)");
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement statement = (MappedStatement) args[0];
+        Object parameter = args[1];
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            StatementStats stats = statements.computeIfAbsent(statement.getId(), StatementStats::new);
+            stats.latency.record(nanos);
+            if (failed) {
+                stats.errors.increment();
+            }
+            if (nanos >= thresholdNanos) {
+                stats.slow.increment();
+                BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : statement.getBoundSql(parameter);
+                recordSlow(statement, parameter, boundSql, (Executor) invocation.getTarget(), nanos);
+            }
+        }
+    }
+
+    // ========== SLOW PATH ==========
+
+    private void recordSlow(MappedStatement statement, Object parameter, BoundSql boundSql, Executor executor, long nanos) {
+        List<Object> parameters = boundParameters(statement.getConfiguration(), boundSql, parameter);
+        String plan = explain(statement, parameter, boundSql, executor);
+        SlowQuery slowQuery = new SlowQuery(statement.getId(), compact(boundSql.getSql()), parameters, plan,
+                nanos, Instant.now());
+
+        System.out.println("⚠️ Slow query (" + nanos / 1_000_000 + " ms) " + slowQuery.statementId
+                + "\n   SQL:    " + slowQuery.sql
+                + "\n   params: " + parameters
+                + "\n   plan:   " + plan.replace("\n", "\n           "));
+
+        synchronized (slowest) {
+            slowest.add(slowQuery);
+            if (slowest.size() > keepSlowest) {
+                slowest.poll();  // drop the fastest one
+            }
+        }
+    }
+
+    /**
+     * EXPLAIN <same SQL> with the same parameters; reuses a recent plan for this statement if there is one
+     */
+    private String explain(MappedStatement statement, Object parameter, BoundSql boundSql, Executor executor) {
+        long now = System.nanoTime();
+        CapturedPlan cached = plans.get(statement.getId());
+        if (cached != null && now - cached.capturedAt < explainIntervalNanos) {
+            return cached.plan;
+        }
+        String plan;
+        try {
+            Connection connection = executor.getTransaction().getConnection();
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+                ParameterHandler parameterHandler = statement.getConfiguration()
+                        .newParameterHandler(statement, parameter, boundSql);
+                parameterHandler.setParameters(explain);
+                StringBuilder text = new StringBuilder();
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        text.append(rows.getString(1)).append('\n');
+                    }
+                }
+                plan = text.toString().trim();
+            }
+        } catch (Exception e) {
+            plan = "(EXPLAIN failed: " + e.getMessage() + ")";
+        }
+        plans.put(statement.getId(), new CapturedPlan(plan, now));
+        return plan;
+    }
+
+    /**
+     * Parameter values in SQL order, resolved the same way MyBatis' DefaultParameterHandler does
+     */
+    private static List<Object> boundParameters(Configuration configuration, BoundSql boundSql, Object parameter) {
+        List<Object> values = new ArrayList<>();
+        MetaObject metaObject = null;
+        for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+            String property = mapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameter == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+                value = parameter;  // single simple parameter (e.g. an Integer id)
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameter);
+                }
+                value = metaObject.getValue(property);
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    private static String compact(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+
+    // ========== READ SIDE (/metrics/slow-queries) ==========
+
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * @return The slowest executions since startup, slowest first
+     */
+    public List<SlowQuery> getSlowestQueries(int limit) {
+        List<SlowQuery> copy;
+        synchronized (slowest) {
+            copy = new ArrayList<>(slowest);
+        }
+        copy.sort(Comparator.comparingLong(SlowQuery::getDurationNanos).reversed());
+        return copy.subList(0, Math.min(limit, copy.size()));
+    }
+
+    /**
+     * @return Per-statement stats, the statement with the highest max time first
+     */
+    public List<StatementStats> getStatementStats(int limit) {
+        List<StatementStats> copy = new ArrayList<>(statements.values());
+        copy.sort(Comparator.comparingLong((StatementStats stats) -> stats.latency.getMaxNanos()).reversed());
+        return copy.subList(0, Math.min(limit, copy.size()));
+    }
+
+    /**
+     * All executions of one mapped statement (e.g. "com.brewpubs.app.mappers.BreweryMapper.getBreweryById")
+     */
+    public static class StatementStats {
+        private final String statementId;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder slow = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        StatementStats(String statementId) {
+            this.statementId = statementId;
+        }
+
+        public String getStatementId() {
+            return statementId;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getSlowCount() {
+            return slow.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+    }
+
+    /**
+     * One execution over the threshold
+     */
+    public static class SlowQuery {
+        private final String statementId;
+        private final String sql;
+        private final List<Object> parameters;
+        private final String plan;
+        private final long durationNanos;
+        private final Instant executedAt;
+
+        SlowQuery(String statementId, String sql, List<Object> parameters, String plan,
+                  long durationNanos, Instant executedAt) {
+            this.statementId = statementId;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.plan = plan;
+            this.durationNanos = durationNanos;
+            this.executedAt = executedAt;
+        }
+
+        public String getStatementId() {
+            return statementId;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public List<Object> getParameters() {
+            return parameters;
+        }
+
+        public String getPlan() {
+            return plan;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        public Instant getExecutedAt() {
+            return executedAt;
+        }
+    }
+
+    private static final class CapturedPlan {
+        final String plan;
+        final long capturedAt;
+
+        CapturedPlan(String plan, long capturedAt) {
+            this.plan = plan;
+            this.capturedAt = capturedAt;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.brewpubs.app.metrics;
+
+/**
+ * Created by Rajiv Shankar on 1/8/26 @ 1:30 PM.
+ */
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Times how long each Thymeleaf view takes to RENDER (separately from the controller method)
+ *
+ * Spring MVC calls, in order:
+ * 1. controller method             (timed by MethodTimingPostProcessor)
+ * 2. postHandle(..., modelAndView) → rendering is about to start → remember the time
+ * 3. view.render(...)              → Thymeleaf writes the HTML
+ * 4. afterCompletion(...)          → rendering is done (or failed) → record under layer "view"
+ *
+ * Requests served from BreweryPageCacheFilter never get here (nothing is rendered).
+ */
+public class ViewRenderTimingInterceptor implements HandlerInterceptor {
+
+    private static final String RENDER_START = ViewRenderTimingInterceptor.class.getName() + ".start";
+    private static final String VIEW_NAME = ViewRenderTimingInterceptor.class.getName() + ".view";
+
+    private final MetricsRegistry metricsRegistry;
+
+    public ViewRenderTimingInterceptor(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView != null && modelAndView.getViewName() != null
+                && !modelAndView.getViewName().startsWith("redirect:")) {
+            request.setAttribute(VIEW_NAME, modelAndView.getViewName());
+            request.setAttribute(RENDER_START, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object start = request.getAttribute(RENDER_START);
+        if (start instanceof Long startNanos) {
+            String viewName = (String) request.getAttribute(VIEW_NAME);
+            metricsRegistry.timer("view", viewName).record(System.nanoTime() - startNanos, ex != null);
+        }
+    }
+}
@@ -4,6 +4,11 @@ package com.brewpubs.app.models;
  * Created by Rajiv Shankar on 11/14/25 @ 12:07 PM.
  */
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
 /**
  * MODEL LAYER
  * POJO (Plain Old Java Object) to represent a brewery, just holds data - no special behavior (all pojos are models but not vv)
@@ -22,10 +27,32 @@ public class Brewery {
 
     // Primary key - auto-generated by database
     private Integer breweryId;
+
+    // Validation (checked by @Valid in the REST API) mirrors the column sizes in schema.sql
+    @NotBlank(message = "Name is required")
+    @Size(max = 100, message = "Name must be at most 100 characters")
     private String name;
+
+    @NotBlank(message = "Address is required")
+    @Size(max = 200, message = "Address must be at most 200 characters")
     private String address;
+
+    @Size(max = 100, message = "Signature beer must be at most 100 characters")
     private String signatureBeer;
 
+    // Location (WGS84 degrees) - optional; used by the "nearest breweries" search
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    // OPTIMISTIC CONCURRENCY: +1 on every update; an update that names an old version changes nothing
+    // (null = not known yet / "don't check", e.g. a brand-new brewery or an old API client)
+    private Integer version;
+
     // Default constructor - REQUIRED for MyBatis; MyBatis creates objects using reflection, then calls setters
     // MyBatis creates empty objects then calls setters
     public Brewery() { }
@@ -80,6 +107,34 @@ public class Brewery {
         this.signatureBeer = signatureBeer;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public boolean hasLocation() {
+        return latitude != null && longitude != null;
+    }
+
     @Override
     public String toString() {
         return "Brewery{" +
@@ -87,6 +142,9 @@ public class Brewery {
                 ", name='" + name + '\'' +
                 ", address='" + address + '\'' +
                 ", signatureBeer='" + signatureBeer + '\'' +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", version=" + version +
                 '}';
     }
 }
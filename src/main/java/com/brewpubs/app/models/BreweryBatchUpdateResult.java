@@ -0,0 +1,39 @@
+package com.brewpubs.app.models;
+
+/**
+ * Created by Rajiv Shankar on 1/14/26 @ 10:30 AM.
+ */
+
+import java.util.List;
+
+/**
+ * BreweryBatchUpdateResult - outcome of BreweryService.updateBreweries (versioned batch update)
+ *
+ * updated:   breweries that were saved, with their NEW version (use it for the next update)
+ * conflicts: ids whose version had changed since the caller read them → re-read and retry these
+ * notFound:  ids that don't exist (anymore)
+ */
+public class BreweryBatchUpdateResult {
+
+    private final List<Brewery> updated;
+    private final List<Integer> conflicts;
+    private final List<Integer> notFound;
+
+    public BreweryBatchUpdateResult(List<Brewery> updated, List<Integer> conflicts, List<Integer> notFound) {
+        this.updated = updated;
+        this.conflicts = conflicts;
+        this.notFound = notFound;
+    }
+
+    public List<Brewery> getUpdated() {
+        return updated;
+    }
+
+    public List<Integer> getConflicts() {
+        return conflicts;
+    }
+
+    public List<Integer> getNotFound() {
+        return notFound;
+    }
+}
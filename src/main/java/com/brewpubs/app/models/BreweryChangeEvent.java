@@ -0,0 +1,55 @@
+package com.brewpubs.app.models;
+
+/**
+ * Created by Rajiv Shankar on 1/15/26 @ 9:40 AM.
+ */
+
+import java.time.Instant;
+
+/**
+ * BreweryChangeEvent - one entry of the brewery change feed (GET /api/breweries/changes)
+ *
+ * seq:       position in the feed (1, 2, 3, ... since startup); the SSE event id is "<epoch>-<seq>"
+ * type:      CREATED / UPDATED / DELETED, or RELOADED when the catalog was re-read from the database
+ *            (bulk import) → clients should re-fetch the full list
+ * breweryId: the brewery that changed (null for RELOADED)
+ * brewery:   the brewery as it is now, including its new version (null for DELETED and RELOADED)
+ */
+public class BreweryChangeEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED, RELOADED }
+
+    private final long seq;
+    private final Type type;
+    private final Integer breweryId;
+    private final Brewery brewery;
+    private final Instant at;
+
+    public BreweryChangeEvent(long seq, Type type, Integer breweryId, Brewery brewery, Instant at) {
+        this.seq = seq;
+        this.type = type;
+        this.breweryId = breweryId;
+        this.brewery = brewery;
+        this.at = at;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Integer getBreweryId() {
+        return breweryId;
+    }
+
+    public Brewery getBrewery() {
+        return brewery;
+    }
+
+    public Instant getAt() {
+        return at;
+    }
+}
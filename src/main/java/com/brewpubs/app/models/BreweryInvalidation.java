@@ -0,0 +1,75 @@
+package com.brewpubs.app.models;
+
+/**
+ * Created by Rajiv Shankar on 1/16/26 @ 9:15 AM.
+ */
+
+/**
+ * BreweryInvalidation - "brewery X changed, drop what you hold for it" (one message on the invalidation bus)
+ *
+ * invalidationId: position in the BREWERY_INVALIDATIONS log (database bus only)
+ * originNode:     instance that made the write; it ignores its own messages
+ * breweryId:      the brewery that changed; null = everything changed (e.g. bulk import)
+ * publishedAt:    epoch millis when the write was published → receiver lag = now - publishedAt
+ */
+public class BreweryInvalidation {
+
+    private Long invalidationId;
+    private String originNode;
+    private Integer breweryId;
+    private long publishedAt;
+
+    public BreweryInvalidation() { }  // MyBatis
+
+    public BreweryInvalidation(String originNode, Integer breweryId, long publishedAt) {
+        this.originNode = originNode;
+        this.breweryId = breweryId;
+        this.publishedAt = publishedAt;
+    }
+
+    public Long getInvalidationId() {
+        return invalidationId;
+    }
+
+    public void setInvalidationId(Long invalidationId) {
+        this.invalidationId = invalidationId;
+    }
+
+    public String getOriginNode() {
+        return originNode;
+    }
+
+    public void setOriginNode(String originNode) {
+        this.originNode = originNode;
+    }
+
+    public Integer getBreweryId() {
+        return breweryId;
+    }
+
+    public void setBreweryId(Integer breweryId) {
+        this.breweryId = breweryId;
+    }
+
+    public long getPublishedAt() {
+        return publishedAt;
+    }
+
+    public void setPublishedAt(long publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+
+    public boolean isEverything() {
+        return breweryId == null;
+    }
+
+    @Override
+    public String toString() {
+        return "BreweryInvalidation{" +
+                "invalidationId=" + invalidationId +
+                ", originNode='" + originNode + '\'' +
+                ", breweryId=" + breweryId +
+                ", publishedAt=" + publishedAt +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package com.brewpubs.app.models;
+
+/**
+ * Created by Rajiv Shankar on 12/15/25 @ 10:12 AM.
+ */
+
+import java.util.List;
+
+/**
+ * BreweryPage - one "page" of breweries from a keyset (seek) query
+ *
+ * KEYSET PAGINATION:
+ * - Instead of OFFSET n (which still walks the first n rows), we remember the LAST brewery_id shown
+ * - The next page asks for "brewery_id > lastId ORDER BY brewery_id LIMIT size" → uses the primary key index
+ * - Cost per page stays the same whether we are on page 1 or page 1,000
+ *
+ * nextAfter: the brewery_id to pass as ?after= for the next page (null when this is the last page)
+ * totalCount: number of breweries in the whole table (travels WITH the page → no separate COUNT query)
+ */
+public class BreweryPage {
+
+    private final List<Brewery> breweries;
+    private final Integer nextAfter;
+    private final int totalCount;
+
+    public BreweryPage(List<Brewery> breweries, Integer nextAfter, int totalCount) {
+        this.breweries = breweries;
+        this.nextAfter = nextAfter;
+        this.totalCount = totalCount;
+    }
+
+    public List<Brewery> getBreweries() {
+        return breweries;
+    }
+
+    public Integer getNextAfter() {
+        return nextAfter;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public boolean isHasNext() {    // Thymeleaf: ${page.hasNext}
+        return nextAfter != null;
+    }
+
+    @Override
+    public String toString() {
+        return "BreweryPage{" +
+                "size=" + breweries.size() +
+                ", nextAfter=" + nextAfter +
+                ", totalCount=" + totalCount +
+                '}';
+    }
+}
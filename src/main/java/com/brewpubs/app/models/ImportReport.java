@@ -0,0 +1,160 @@
+package com.brewpubs.app.models;
+
+/**
+ * Created by Rajiv Shankar on 12/19/25 @ 10:40 AM.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ImportReport - result of one bulk import (returned as JSON by the import endpoint)
+ *
+ * rowsRead      = data lines seen (header not counted)
+ * rowsImported  = rows committed to the database
+ * rowsInvalid   = rows rejected by validation (see rowErrors)
+ * batchFailures = JDBC batches the database rejected; their uncommitted rows were rolled back
+ */
+public class ImportReport {
+
+    // Keep the JSON response small even if a whole file is bad
+    public static final int MAX_ROW_ERRORS = 100;
+
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsInvalid;
+    private int batches;
+    private long elapsedMillis;
+    private final List<RowError> rowErrors = new ArrayList<>();
+    private final List<BatchFailure> batchFailures = new ArrayList<>();
+
+    // ========== UPDATED BY THE IMPORTER ==========
+
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void rowsImported(long rows) {
+        rowsImported += rows;
+    }
+
+    public void batchExecuted() {
+        batches++;
+    }
+
+    public void rowInvalid(long lineNumber, String message) {
+        rowsInvalid++;
+        if (rowErrors.size() < MAX_ROW_ERRORS) {
+            rowErrors.add(new RowError(lineNumber, message));
+        }
+    }
+
+    public void batchFailed(int batchNumber, long firstLine, long lastLine, String message) {
+        batchFailures.add(new BatchFailure(batchNumber, firstLine, lastLine, message));
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // ========== GETTERS (JSON) ==========
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsInvalid() {
+        return rowsInvalid;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsImported : rowsImported * 1000.0 / elapsedMillis;
+    }
+
+    public List<RowError> getRowErrors() {
+        return rowErrors;
+    }
+
+    public List<BatchFailure> getBatchFailures() {
+        return batchFailures;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "rowsRead=" + rowsRead +
+                ", rowsImported=" + rowsImported +
+                ", rowsInvalid=" + rowsInvalid +
+                ", batches=" + batches +
+                ", batchFailures=" + batchFailures.size() +
+                ", elapsedMillis=" + elapsedMillis +
+                ", rowsPerSecond=" + Math.round(getRowsPerSecond()) +
+                '}';
+    }
+
+    /**
+     * One rejected input line (line numbers start at 1, header included)
+     */
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * One failed JDBC batch: lines firstLine..lastLine were not imported
+     */
+    public static class BatchFailure {
+        private final int batch;
+        private final long firstLine;
+        private final long lastLine;
+        private final String message;
+
+        public BatchFailure(int batch, long firstLine, long lastLine, String message) {
+            this.batch = batch;
+            this.firstLine = firstLine;
+            this.lastLine = lastLine;
+            this.message = message;
+        }
+
+        public int getBatch() {
+            return batch;
+        }
+
+        public long getFirstLine() {
+            return firstLine;
+        }
+
+        public long getLastLine() {
+            return lastLine;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
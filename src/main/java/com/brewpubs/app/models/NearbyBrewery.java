@@ -0,0 +1,36 @@
+package com.brewpubs.app.models;
+
+/**
+ * Created by Rajiv Shankar on 12/18/25 @ 3:20 PM.
+ */
+
+/**
+ * NearbyBrewery - a brewery plus its distance from the point the user searched from
+ * Returned (closest first) by the "nearest breweries" search
+ */
+public class NearbyBrewery {
+
+    private final Brewery brewery;
+    private final double distanceKm;
+
+    public NearbyBrewery(Brewery brewery, double distanceKm) {
+        this.brewery = brewery;
+        this.distanceKm = distanceKm;
+    }
+
+    public Brewery getBrewery() {
+        return brewery;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    @Override
+    public String toString() {
+        return "NearbyBrewery{" +
+                "brewery=" + brewery.getName() +
+                ", distanceKm=" + distanceKm +
+                '}';
+    }
+}
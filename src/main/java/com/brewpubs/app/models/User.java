@@ -6,6 +6,7 @@ package com.brewpubs.app.models;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
 /**
  * POJO: Plain Old Java Object, simple Java class to hold data, no special behavior,
@@ -27,11 +28,16 @@ import jakarta.validation.constraints.NotBlank;
  * 5. Controller receives populated User object
  */
 public class User {
+    // Primary key - auto-generated by database (null until the user is saved)
+    private Integer userId;
+
     @NotBlank(message = "Username is required")
+    @Size(max = 50, message = "Username must be at most 50 characters")
     private String username;
 
     @NotBlank(message = "Email is required")
     @Email(message = "Email must be valid")
+    @Size(max = 100, message = "Email must be at most 100 characters")
     private String email;
 
     /**
@@ -53,6 +59,14 @@ public class User {
 
 // Getters and Setters (required for @ModelAttribute binding)
 
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
     /**
      * Get username
      * FORM BINDING: When form has <input th:field="*{username}"/>,
@@ -82,7 +96,8 @@ public class User {
     @Override
     public String toString() {
         return "User{" +
-                "username='" + username + '\'' +
+                "userId=" + userId +
+                ", username='" + username + '\'' +
                 ", email='" + email + '\'' +
                 '}';
     }
@@ -0,0 +1,57 @@
+package com.brewpubs.app.models;
+
+/**
+ * Created by Rajiv Shankar on 1/22/26 @ 10:05 AM.
+ */
+
+/**
+ * UserImportReport - result of one bulk user registration (returned as JSON by POST /api/users/import)
+ *
+ * Everything ImportReport has (rows read / imported / invalid, per-line errors, batches, rows per second),
+ * plus how the validation stage ran:
+ * parallelism         = worker threads validating chunks at the same time
+ * chunks              = chunks of lines handed to the workers
+ * validationCpuMillis = time the workers spent parsing + validating, summed over all workers
+ *                       (≈ elapsedMillis × parallelism when validation is the bottleneck)
+ */
+public class UserImportReport extends ImportReport {
+
+    private int parallelism;
+    private int chunks;
+    private long validationCpuMillis;
+
+    // ========== UPDATED BY THE IMPORTER ==========
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public void chunkValidated(long cpuNanos) {
+        chunks++;
+        validationCpuMillis += cpuNanos / 1_000_000;
+    }
+
+    // ========== GETTERS (JSON) ==========
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public long getValidationCpuMillis() {
+        return validationCpuMillis;
+    }
+
+    public double getRowsReadPerSecond() {
+        return getElapsedMillis() == 0 ? getRowsRead() : getRowsRead() * 1000.0 / getElapsedMillis();
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + " (parallelism=" + parallelism + ", chunks=" + chunks
+                + ", validationCpuMillis=" + validationCpuMillis + ")";
+    }
+}
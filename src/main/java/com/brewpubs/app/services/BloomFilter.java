@@ -0,0 +1,102 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 1/5/26 @ 10:30 AM.
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * BloomFilter - compact "have I maybe seen this string before?" set
+ *
+ * HOW IT WORKS:
+ * 1. A big array of bits, all 0 at the start
+ * 2. add("rajiv") → compute k hash positions, set those k bits to 1
+ * 3. mightContain("rajiv") → are ALL k bits 1?
+ *    - NO  → definitely never added (no database query needed)
+ *    - YES → probably added (could be a false positive → confirm with the database)
+ *
+ * SIZE: ~9.6 bits per entry for a 1% false-positive rate (1M usernames ≈ 1.2 MB)
+ * No removals: a deleted name stays "maybe" until the filter is rebuilt (still correct, just slower)
+ *
+ * THREAD SAFETY: bits are set with compare-and-set, so adds and lookups never block each other
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;  // 64 bits per long
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedEntries How many strings we plan to add
+     * @param falsePositiveRate Target rate of "maybe" answers for strings never added (e.g. 0.01)
+     */
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        long n = Math.max(1, expectedEntries);
+        // Standard sizing: m = -n ln(p) / (ln 2)^2 bits, k = (m / n) ln 2 hash functions
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) Math.max(1, (bits + 63) / 64));
+        this.bitCount = words.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void add(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1) | 1;  // second, independent hash (odd → visits different positions)
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << (bit & 63);
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;  // already set
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;  // one clear bit is enough: definitely not present
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0L);
+        }
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    // 64-bit FNV-1a over the UTF-16 chars
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    // SplitMix64 finalizer: spreads nearby inputs over all 64 bits
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
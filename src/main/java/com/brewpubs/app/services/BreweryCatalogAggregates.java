@@ -0,0 +1,194 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 1/21/26 @ 10:15 AM.
+ */
+
+import com.brewpubs.app.models.Brewery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BreweryCatalogAggregates - breweries per town and per beer style, kept up to date by DELTAS
+ *
+ * WHAT IS COUNTED:
+ * - town:  the part of the address before the state, e.g. "200 Lower Main St, Freeport, ME" → Freeport
+ * - style: the last "(...)" of the signature beer, e.g. "Epiphany (IPA)" → IPA, "Allagash White" → Other
+ *
+ * HOW IT STAYS CURRENT (no GROUP BY per page view):
+ * - rebuild(...) once per full reload (startup, bulk import)
+ * - replace(before, after) for every single-row change: the old row's town/style -1, the new row's +1
+ *   (insert: before = null, delete: after = null). BreweryService passes the row as it was in the
+ *   snapshot it replaced → each delta matches exactly one snapshot swap, so the counts always add up
+ *
+ * READS: getView() returns an immutable, sorted view. It is rebuilt only on the first read after a
+ * change (a few dozen towns/styles → microseconds); every other read returns the same object → O(1).
+ *
+ * THREAD SAFETY: ConcurrentHashMap.merge makes each ±1 atomic; a view built while a delta lands is
+ * labelled with the older change number, so the next read simply builds it again.
+ * rebuild() counts into NEW maps and swaps them in with one volatile write: a reader sees the old
+ * counts or the new ones, never a half-cleared map. It must not run while replace() does (a delta
+ * applied to the old maps would be lost) - BreweryService runs it under its reload lock, which keeps
+ * every write out, right before it swaps in the new snapshot.
+ */
+public class BreweryCatalogAggregates {
+
+    public static final String OTHER = "Other";
+
+    private volatile Counts counts = new Counts();
+    private final AtomicLong changes = new AtomicLong();
+    private volatile View view = new View(-1, List.of(), List.of());
+
+    // ========== WRITES ==========
+
+    public void rebuild(List<Brewery> breweries) {
+        Counts fresh = new Counts();
+        for (Brewery brewery : breweries) {
+            add(fresh.towns, townOf(brewery.getAddress()), 1);
+            add(fresh.styles, styleOf(brewery.getSignatureBeer()), 1);
+        }
+        counts = fresh;
+        changes.incrementAndGet();
+    }
+
+    /**
+     * One row changed
+     * @param before the row before the change (null = inserted)
+     * @param after  the row after the change (null = deleted)
+     */
+    public void replace(Brewery before, Brewery after) {
+        String townBefore = before == null ? null : townOf(before.getAddress());
+        String townAfter = after == null ? null : townOf(after.getAddress());
+        String styleBefore = before == null ? null : styleOf(before.getSignatureBeer());
+        String styleAfter = after == null ? null : styleOf(after.getSignatureBeer());
+        if (Objects.equals(townBefore, townAfter) && Objects.equals(styleBefore, styleAfter)) {
+            return;  // e.g. only the name changed → counts and the cached view stay as they are
+        }
+        Counts current = counts;
+        if (before != null) {
+            add(current.towns, townBefore, -1);
+            add(current.styles, styleBefore, -1);
+        }
+        if (after != null) {
+            add(current.towns, townAfter, 1);
+            add(current.styles, styleAfter, 1);
+        }
+        changes.incrementAndGet();
+    }
+
+    private static void add(Map<String, Integer> counts, String key, int delta) {
+        counts.merge(key, delta, (count, change) -> count + change == 0 ? null : count + change);  // 0 → removed
+    }
+
+    // ========== READS ==========
+
+    public View getView() {
+        View current = view;
+        long change = changes.get();
+        if (current.change == change) {
+            return current;
+        }
+        Counts live = counts;
+        View fresh = new View(change, sorted(live.towns), sorted(live.styles));
+        view = fresh;
+        return fresh;
+    }
+
+    private static List<Count> sorted(Map<String, Integer> counts) {
+        List<Count> rows = new ArrayList<>(counts.size());
+        counts.forEach((name, count) -> {
+            if (count > 0) {  // a -1 can briefly land before its +1 when two writers race
+                rows.add(new Count(name, count));
+            }
+        });
+        rows.sort(Comparator.comparingInt(Count::getCount).reversed().thenComparing(Count::getName));
+        return List.copyOf(rows);
+    }
+
+    // ========== PARSING ==========
+
+    /**
+     * "50 Industrial Way, Portland, ME" → "Portland"; "1 Main St, Freeport" → "Freeport"; no comma → "Other"
+     */
+    static String townOf(String address) {
+        if (address == null) {
+            return OTHER;
+        }
+        String[] parts = address.split(",");
+        String town = parts.length >= 3 ? parts[parts.length - 2] : parts.length == 2 ? parts[1] : "";
+        town = town.trim();
+        return town.isEmpty() ? OTHER : town;
+    }
+
+    /**
+     * "The Substance (Double IPA)" → "Double IPA"; no parentheses → "Other"
+     */
+    static String styleOf(String signatureBeer) {
+        if (signatureBeer == null) {
+            return OTHER;
+        }
+        int close = signatureBeer.lastIndexOf(')');
+        int open = close < 0 ? -1 : signatureBeer.lastIndexOf('(', close);
+        String style = open < 0 ? "" : signatureBeer.substring(open + 1, close).trim();
+        return style.isEmpty() ? OTHER : style;
+    }
+
+    // ========== COUNTS ==========
+
+    /**
+     * The live per-town and per-style counts (replaced as a whole by rebuild)
+     */
+    private static final class Counts {
+        final Map<String, Integer> towns = new ConcurrentHashMap<>();
+        final Map<String, Integer> styles = new ConcurrentHashMap<>();
+    }
+
+    // ========== VIEW ==========
+
+    /**
+     * Counts at one point in time, largest first (ties by name)
+     */
+    public static final class View {
+        private final long change;
+        private final List<Count> towns;
+        private final List<Count> styles;
+
+        private View(long change, List<Count> towns, List<Count> styles) {
+            this.change = change;
+            this.towns = towns;
+            this.styles = styles;
+        }
+
+        public List<Count> getTowns() {
+            return towns;
+        }
+
+        public List<Count> getStyles() {
+            return styles;
+        }
+    }
+
+    public static final class Count {
+        private final String name;
+        private final int count;
+
+        Count(String name, int count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,529 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 1/13/26 @ 9:40 AM.
+ */
+
+import com.brewpubs.app.models.Brewery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * BreweryCatalogSnapshot - the whole BREWERIES table as a few arrays (struct of arrays), in chunks
+ *
+ * List<Brewery> (one object per row):        this snapshot (one array per column, per chunk of rows):
+ *   Brewery → Integer id                       int[]    ids           (sorted → binary search)
+ *           → String name                      String[] names
+ *           → String address                   String[] streets       "50 Industrial Way"
+ *                                              int[]    suffixRefs  → String[] suffixes  ", Portland, ME" (stored ONCE)
+ *           → String signatureBeer             String[] beers         (equal names share one String)
+ *           → Double latitude, longitude       double[] latitudes, longitudes (NaN = no location)
+ *           → Integer version                  int[]    versions
+ *
+ * No per-row object header, no boxed Integer/Double, and the repeated ", Portland, ME" tail of every
+ * address is stored once (BreweryCatalogSnapshotMemoryTests prints the bytes per row of this snapshot
+ * and of everything else BreweryService keeps per brewery).
+ *
+ * CHUNKS: rows are split into chunks of up to CHUNK_ROWS consecutive ids, each with its own arrays.
+ * A write copies only the chunk(s) it touches plus the small chunk table:
+ *   one row changed at 100k breweries → ~1k array slots per column copied, not 100k
+ *
+ * IMMUTABLE: readers never lock. Writes go through an Editor (edit() → put/replace/remove → build()):
+ * every chunk is copied at most ONCE per edit, however many of its rows change, and build() returns a
+ * new snapshot that BreweryService swaps in. Brewery objects are created only for the rows a page shows.
+ */
+public final class BreweryCatalogSnapshot {
+
+    static final int CHUNK_ROWS = 1024;
+
+    private static final BreweryCatalogSnapshot EMPTY = new Builder().build();
+
+    private final Chunk[] chunks;
+    private final int[] firstIds;                      // firstIds[c] = chunks[c].ids[0] → which chunk holds an id
+    private final int size;
+    private final String[] suffixes;
+    private final Map<String, Integer> suffixIndex;    // suffix → position in suffixes (never mutated once shared)
+
+    private BreweryCatalogSnapshot(Chunk[] chunks, String[] suffixes, Map<String, Integer> suffixIndex) {
+        this.chunks = chunks;
+        this.firstIds = new int[chunks.length];
+        int rows = 0;
+        for (int c = 0; c < chunks.length; c++) {
+            firstIds[c] = chunks[c].ids[0];
+            rows += chunks[c].size;
+        }
+        this.size = rows;
+        this.suffixes = suffixes;
+        this.suffixIndex = suffixIndex;
+    }
+
+    public static BreweryCatalogSnapshot empty() {
+        return EMPTY;
+    }
+
+    // ========== READS ==========
+
+    public int size() {
+        return size;
+    }
+
+    public int getDistinctAddressSuffixes() {
+        return suffixes.length;
+    }
+
+    /**
+     * @return A new Brewery for this id, or null if there is none (O(log n))
+     */
+    public Brewery findById(int id) {
+        int c = chunkFor(id);
+        if (c < 0) {
+            return null;
+        }
+        int position = chunks[c].positionOf(id);
+        return position < 0 ? null : toBrewery(chunks[c], position);
+    }
+
+    /**
+     * Keyset page: up to 'limit' breweries with brewery_id > afterId, in id order
+     * @return limit + 1 rows at most, so the caller can tell whether there is a next page
+     */
+    public List<Brewery> rowsAfter(int afterId, int limit) {
+        List<Brewery> rows = new ArrayList<>(Math.min(limit, 256));
+        int c = Math.max(0, chunkFor(afterId));
+        for (; c < chunks.length && rows.size() < limit; c++) {
+            Chunk chunk = chunks[c];
+            int position = Arrays.binarySearch(chunk.ids, 0, chunk.size, afterId);
+            int from = position >= 0 ? position + 1 : -position - 1;  // first id > afterId
+            for (int i = from; i < chunk.size && rows.size() < limit; i++) {
+                rows.add(toBrewery(chunk, i));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Every brewery, in id order (creates one object per row - prefer rowsAfter for pages)
+     */
+    public List<Brewery> toList() {
+        List<Brewery> all = new ArrayList<>(size);
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.size; i++) {
+                all.add(toBrewery(chunk, i));
+            }
+        }
+        return Collections.unmodifiableList(all);
+    }
+
+    // Last chunk whose first id is <= id (-1 = id is below every row)
+    private int chunkFor(int id) {
+        int c = Arrays.binarySearch(firstIds, id);
+        return c >= 0 ? c : -c - 2;
+    }
+
+    private Brewery toBrewery(Chunk chunk, int position) {
+        Brewery brewery = new Brewery(chunk.ids[position], chunk.names[position], address(chunk, position),
+                chunk.beers[position]);
+        if (!Double.isNaN(chunk.latitudes[position])) {
+            brewery.setLatitude(chunk.latitudes[position]);
+        }
+        if (!Double.isNaN(chunk.longitudes[position])) {
+            brewery.setLongitude(chunk.longitudes[position]);
+        }
+        brewery.setVersion(chunk.versions[position]);
+        return brewery;
+    }
+
+    private String address(Chunk chunk, int position) {
+        int suffix = chunk.suffixRefs[position];
+        return suffix < 0 ? chunk.streets[position] : chunk.streets[position] + suffixes[suffix];
+    }
+
+    // ========== COPY-ON-WRITE UPDATES ==========
+
+    /**
+     * @return A snapshot with this brewery added (new id) or replaced (existing id)
+     * A row already at a NEWER version is kept (two writers finishing out of order can't roll it back)
+     */
+    public BreweryCatalogSnapshot with(Brewery brewery) {
+        return edit().put(brewery).build();
+    }
+
+    /**
+     * @return A snapshot without this id (the same snapshot if the id isn't there)
+     */
+    public BreweryCatalogSnapshot without(int id) {
+        return edit().remove(id).build();
+    }
+
+    /**
+     * Start a batch of changes; nothing is visible (and this snapshot never changes) until build()
+     */
+    public Editor edit() {
+        return new Editor(this);
+    }
+
+    /**
+     * "50 Industrial Way, Portland, ME" → ["50 Industrial Way", ", Portland, ME"]
+     * (no comma → [address, null])
+     */
+    static String[] splitAddress(String address) {
+        if (address == null) {
+            return new String[]{null, null};
+        }
+        int comma = address.indexOf(", ");
+        if (comma < 0) {
+            return new String[]{address, null};
+        }
+        return new String[]{address.substring(0, comma), address.substring(comma)};
+    }
+
+    /**
+     * Changes to one snapshot, applied to private copies of the chunks they touch
+     * (one Editor per write, used by one thread)
+     */
+    public static final class Editor {
+        private final BreweryCatalogSnapshot base;
+        private final List<Chunk> chunks;
+        private final Set<Chunk> copied = Collections.newSetFromMap(new IdentityHashMap<>());  // ours to change
+        private String[] suffixes;
+        private Map<String, Integer> suffixIndex;
+        private boolean suffixesCopied;
+        private boolean changed;
+
+        private Editor(BreweryCatalogSnapshot base) {
+            this.base = base;
+            this.chunks = new ArrayList<>(Arrays.asList(base.chunks));
+            this.suffixes = base.suffixes;
+            this.suffixIndex = base.suffixIndex;
+        }
+
+        /**
+         * Add or replace a row (an existing row at a NEWER version is kept)
+         */
+        public Editor put(Brewery brewery) {
+            return write(brewery, true);
+        }
+
+        /**
+         * Replace a row only if the id is already there (an update of a row deleted in the meantime
+         * must not bring it back); an existing row at a NEWER version is kept
+         */
+        public Editor replace(Brewery brewery) {
+            return write(brewery, false);
+        }
+
+        public Editor remove(int id) {
+            int c = chunkFor(id);
+            if (c < 0 || chunks.get(c).positionOf(id) < 0) {
+                return this;
+            }
+            Chunk chunk = writable(c);
+            chunk.removeAt(chunk.positionOf(id));
+            if (chunk.size == 0) {
+                chunks.remove(c);
+            }
+            changed = true;
+            return this;
+        }
+
+        private Editor write(Brewery brewery, boolean insertIfMissing) {
+            int id = brewery.getBreweryId();
+            int version = brewery.getVersion() == null ? 0 : brewery.getVersion();
+            int c = chunkFor(id);
+            int position = c < 0 ? -1 : chunks.get(c).positionOf(id);
+            if (position >= 0 && chunks.get(c).versions[position] > version) {
+                return this;  // a newer version is already in
+            }
+            if (position < 0 && !insertIfMissing) {
+                return this;
+            }
+
+            String[] split = splitAddress(brewery.getAddress());
+            int suffixRef = split[1] == null ? -1 : suffixRef(split[1]);
+            if (position >= 0) {
+                writable(c).set(position, id, brewery, split[0], suffixRef, version);
+            } else {
+                Chunk chunk = chunkForInsert(c, id);
+                chunk.insert(-chunk.positionOf(id) - 1, id, brewery, split[0], suffixRef, version);
+            }
+            changed = true;
+            return this;
+        }
+
+        // Chunk that should receive a new id (splitting a full chunk, or opening a new one at the end)
+        private Chunk chunkForInsert(int c, int id) {
+            if (chunks.isEmpty()) {
+                Chunk chunk = new Chunk(CHUNK_ROWS);
+                chunks.add(chunk);
+                copied.add(chunk);
+                return chunk;
+            }
+            c = Math.max(c, 0);  // below every id → goes to the front of the first chunk
+            Chunk chunk = chunks.get(c);
+            if (chunk.size < CHUNK_ROWS) {
+                return writable(c);
+            }
+            boolean appending = c == chunks.size() - 1 && id > chunk.ids[chunk.size - 1];
+            if (appending) {  // new ids are usually the highest so far → start a fresh chunk, keep this one full
+                Chunk fresh = new Chunk(CHUNK_ROWS);
+                chunks.add(fresh);
+                copied.add(fresh);
+                return fresh;
+            }
+            Chunk upper = writable(c).splitUpperHalf();
+            chunks.add(c + 1, upper);
+            copied.add(upper);
+            return id < upper.ids[0] ? chunks.get(c) : upper;
+        }
+
+        private Chunk writable(int c) {
+            Chunk chunk = chunks.get(c);
+            if (!copied.contains(chunk)) {
+                chunk = chunk.copy(Math.min(CHUNK_ROWS, chunk.size + 16));
+                chunks.set(c, chunk);
+                copied.add(chunk);
+            }
+            return chunk;
+        }
+
+        private int chunkFor(int id) {
+            int low = 0;
+            int high = chunks.size() - 1;
+            int found = -1;
+            while (low <= high) {  // last chunk whose first id is <= id
+                int mid = (low + high) >>> 1;
+                if (chunks.get(mid).ids[0] <= id) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found;
+        }
+
+        private int suffixRef(String suffix) {
+            Integer existing = suffixIndex.get(suffix);
+            if (existing != null) {
+                return existing;
+            }
+            if (!suffixesCopied) {  // first brewery in a new town: grow a private copy of the suffix table
+                suffixIndex = new HashMap<>(suffixIndex);
+                suffixesCopied = true;
+            }
+            suffixes = Arrays.copyOf(suffixes, suffixes.length + 1);
+            suffixes[suffixes.length - 1] = suffix;
+            suffixIndex.put(suffix, suffixes.length - 1);
+            return suffixes.length - 1;
+        }
+
+        /**
+         * @return The new snapshot (this editor's base if nothing changed)
+         */
+        public BreweryCatalogSnapshot build() {
+            if (!changed) {
+                return base;
+            }
+            Chunk[] result = new Chunk[chunks.size()];
+            for (int c = 0; c < result.length; c++) {
+                Chunk chunk = chunks.get(c);
+                result[c] = copied.contains(chunk) ? chunk.trimmed() : chunk;
+            }
+            return new BreweryCatalogSnapshot(result, suffixes, suffixIndex);
+        }
+    }
+
+    // ========== BUILDING (startup / reload) ==========
+
+    /**
+     * Collects rows in brewery_id order (one add() per row of the projection query) into full chunks
+     */
+    public static final class Builder {
+        private final List<Chunk> chunks = new ArrayList<>();
+        private Chunk current;
+        private int lastId = Integer.MIN_VALUE;
+        private final List<String> suffixes = new ArrayList<>();
+        private final Map<String, Integer> suffixIndex = new HashMap<>();
+        private final Map<String, String> beerPool = new HashMap<>();  // one String instance per distinct beer
+
+        public Builder add(Brewery brewery) {
+            return add(brewery.getBreweryId(), brewery.getName(), brewery.getAddress(), brewery.getSignatureBeer(),
+                    brewery.getLatitude(), brewery.getLongitude(), brewery.getVersion() == null ? 0 : brewery.getVersion());
+        }
+
+        public Builder add(int id, String name, String address, String signatureBeer, Double latitude, Double longitude,
+                           int version) {
+            if (id <= lastId && !chunks.isEmpty()) {
+                throw new IllegalArgumentException("Rows must arrive in increasing brewery_id order (got " + id
+                        + " after " + lastId + ")");
+            }
+            if (current == null || current.size == CHUNK_ROWS) {
+                current = new Chunk(CHUNK_ROWS);
+                chunks.add(current);
+            }
+            String[] split = splitAddress(address);
+            int suffixRef = split[1] == null ? -1 : suffixIndex.computeIfAbsent(split[1], suffix -> {
+                suffixes.add(suffix);
+                return suffixes.size() - 1;
+            });
+            String beer = signatureBeer == null ? null : beerPool.computeIfAbsent(signatureBeer, b -> b);
+            current.append(id, name, split[0], suffixRef, beer,
+                    latitude == null ? Double.NaN : latitude, longitude == null ? Double.NaN : longitude, version);
+            lastId = id;
+            return this;
+        }
+
+        public BreweryCatalogSnapshot build() {
+            Chunk[] result = new Chunk[chunks.size()];
+            for (int c = 0; c < result.length; c++) {
+                result[c] = chunks.get(c).trimmed();
+            }
+            return new BreweryCatalogSnapshot(result, suffixes.toArray(new String[0]), new HashMap<>(suffixIndex));
+        }
+    }
+
+    // ========== CHUNK ==========
+
+    /**
+     * Up to CHUNK_ROWS consecutive rows (sorted by id). Immutable once it belongs to a snapshot;
+     * only the Editor/Builder that created (or copied) it writes to it.
+     */
+    private static final class Chunk {
+        int size;
+        int[] ids;
+        String[] names;
+        String[] streets;
+        int[] suffixRefs;                              // -1 = address has no ", ..." tail
+        String[] beers;
+        double[] latitudes;
+        double[] longitudes;
+        int[] versions;
+
+        Chunk(int capacity) {
+            ids = new int[capacity];
+            names = new String[capacity];
+            streets = new String[capacity];
+            suffixRefs = new int[capacity];
+            beers = new String[capacity];
+            latitudes = new double[capacity];
+            longitudes = new double[capacity];
+            versions = new int[capacity];
+        }
+
+        int positionOf(int id) {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+
+        void append(int id, String name, String street, int suffixRef, String beer,
+                    double latitude, double longitude, int version) {
+            if (size == ids.length) {
+                resize(Math.max(4, size * 2));
+            }
+            ids[size] = id;
+            names[size] = name;
+            streets[size] = street;
+            suffixRefs[size] = suffixRef;
+            beers[size] = beer;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            versions[size] = version;
+            size++;
+        }
+
+        void set(int position, int id, Brewery brewery, String street, int suffixRef, int version) {
+            ids[position] = id;
+            names[position] = brewery.getName();
+            streets[position] = street;
+            suffixRefs[position] = suffixRef;
+            beers[position] = brewery.getSignatureBeer();
+            latitudes[position] = brewery.getLatitude() == null ? Double.NaN : brewery.getLatitude();
+            longitudes[position] = brewery.getLongitude() == null ? Double.NaN : brewery.getLongitude();
+            versions[position] = version;
+        }
+
+        void insert(int position, int id, Brewery brewery, String street, int suffixRef, int version) {
+            if (size == ids.length) {
+                resize(Math.max(4, size * 2));
+            }
+            shift(position, position + 1, size - position);
+            size++;
+            set(position, id, brewery, street, suffixRef, version);
+        }
+
+        void removeAt(int position) {
+            shift(position + 1, position, size - position - 1);
+            size--;
+            names[size] = null;  // let the Strings go
+            streets[size] = null;
+            beers[size] = null;
+        }
+
+        private void shift(int from, int to, int length) {
+            System.arraycopy(ids, from, ids, to, length);
+            System.arraycopy(names, from, names, to, length);
+            System.arraycopy(streets, from, streets, to, length);
+            System.arraycopy(suffixRefs, from, suffixRefs, to, length);
+            System.arraycopy(beers, from, beers, to, length);
+            System.arraycopy(latitudes, from, latitudes, to, length);
+            System.arraycopy(longitudes, from, longitudes, to, length);
+            System.arraycopy(versions, from, versions, to, length);
+        }
+
+        // Moves the upper half of the rows into a new chunk (this one keeps the lower half)
+        Chunk splitUpperHalf() {
+            int keep = size / 2;
+            Chunk upper = new Chunk(CHUNK_ROWS);
+            upper.size = size - keep;
+            System.arraycopy(ids, keep, upper.ids, 0, upper.size);
+            System.arraycopy(names, keep, upper.names, 0, upper.size);
+            System.arraycopy(streets, keep, upper.streets, 0, upper.size);
+            System.arraycopy(suffixRefs, keep, upper.suffixRefs, 0, upper.size);
+            System.arraycopy(beers, keep, upper.beers, 0, upper.size);
+            System.arraycopy(latitudes, keep, upper.latitudes, 0, upper.size);
+            System.arraycopy(longitudes, keep, upper.longitudes, 0, upper.size);
+            System.arraycopy(versions, keep, upper.versions, 0, upper.size);
+            Arrays.fill(names, keep, size, null);
+            Arrays.fill(streets, keep, size, null);
+            Arrays.fill(beers, keep, size, null);
+            size = keep;
+            return upper;
+        }
+
+        Chunk copy(int capacity) {
+            Chunk copy = new Chunk(0);
+            copy.size = size;
+            copy.resizeFrom(this, Math.max(capacity, size));
+            return copy;
+        }
+
+        // Arrays exactly 'size' long (what a published snapshot keeps)
+        Chunk trimmed() {
+            if (ids.length != size) {
+                resize(size);
+            }
+            return this;
+        }
+
+        private void resize(int capacity) {
+            resizeFrom(this, capacity);
+        }
+
+        private void resizeFrom(Chunk from, int capacity) {
+            ids = Arrays.copyOf(from.ids, capacity);
+            names = Arrays.copyOf(from.names, capacity);
+            streets = Arrays.copyOf(from.streets, capacity);
+            suffixRefs = Arrays.copyOf(from.suffixRefs, capacity);
+            beers = Arrays.copyOf(from.beers, capacity);
+            latitudes = Arrays.copyOf(from.latitudes, capacity);
+            longitudes = Arrays.copyOf(from.longitudes, capacity);
+            versions = Arrays.copyOf(from.versions, capacity);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 1/15/26 @ 10:05 AM.
+ */
+
+import com.brewpubs.app.models.Brewery;
+import com.brewpubs.app.models.BreweryChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * IN-PROCESS CHANGE STREAM: BreweryService publishes every create/update/delete here;
+ * the SSE endpoint (BreweryChangeFeedController) hands the events to subscribers
+ *
+ * SEQUENCE NUMBERS + HISTORY:
+ * - every event gets the next sequence number (1, 2, 3, ...)
+ * - the last history-size events stay in a ring buffer → a client that reconnects with
+ *   "Last-Event-ID: <epoch>-<seq>" gets exactly the events it missed, nothing twice
+ * - too far behind (already overwritten), or an id from before a restart (other epoch) →
+ *   the subscription starts with a RESET: re-fetch /api/breweries, then apply deltas
+ *
+ * SLOW SUBSCRIBERS: each one has its OWN bounded buffer (subscriber-buffer events).
+ * publish() never waits: if a buffer is full that subscriber is marked overflowed and dropped;
+ * its client reconnects with its Last-Event-ID and catches up from the history.
+ * A stalled dashboard therefore can't slow down writes or the other subscribers.
+ */
+@Component
+public class BreweryChangeFeed {
+
+    private final BreweryChangeEvent[] history;  // ring buffer, slot = seq % length
+    private final int subscriberBuffer;
+    private final long epoch = System.currentTimeMillis();  // tells ids from an earlier run apart
+
+    private final Set<Subscription> subscribers = ConcurrentHashMap.newKeySet();
+    private long seq;  // last published sequence number (guarded by this)
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+
+    public BreweryChangeFeed(@Value("${brewpubs.changes.history-size:1000}") int historySize,
+                             @Value("${brewpubs.changes.subscriber-buffer:256}") int subscriberBuffer) {
+        this.history = new BreweryChangeEvent[Math.max(1, historySize)];
+        this.subscriberBuffer = Math.max(1, subscriberBuffer);
+    }
+
+    // ========== PUBLISH (called by BreweryService after a successful write) ==========
+
+    /**
+     * @param brewery The brewery as saved (a private copy - it's serialized later, on another thread)
+     */
+    public synchronized void publish(BreweryChangeEvent.Type type, Integer breweryId, Brewery brewery) {
+        BreweryChangeEvent event = new BreweryChangeEvent(++seq, type, breweryId, brewery, Instant.now());
+        history[(int) (event.getSeq() % history.length)] = event;
+        published.increment();
+        for (Subscription subscription : subscribers) {
+            if (!subscription.queue.offer(event)) {  // never block the writer
+                subscription.overflowed = true;
+                subscribers.remove(subscription);
+                overflows.increment();
+            }
+        }
+    }
+
+    // ========== SUBSCRIBE ==========
+
+    /**
+     * @param lastEventId The SSE id of the last event the client has ("<epoch>-<seq>"), or null for "from now on"
+     * @return A subscription whose buffer already holds the missed events (or that starts with a reset)
+     *
+     * synchronized with publish(): the replay and the registration happen between two publishes,
+     * so no event is lost or delivered twice
+     */
+    public synchronized Subscription subscribe(String lastEventId) {
+        Subscription subscription = new Subscription(subscriberBuffer);
+        long after = parseSeq(lastEventId);
+        if (after >= 0) {
+            long oldestKept = Math.max(1, seq - history.length + 1);
+            boolean gap = after < oldestKept - 1 || after > seq || seq - after > subscriberBuffer;
+            if (gap) {
+                subscription.resetAt = seq;
+                resets.increment();
+            } else {
+                for (long s = after + 1; s <= seq; s++) {
+                    subscription.queue.add(history[(int) (s % history.length)]);
+                }
+            }
+        } else if (lastEventId != null) {
+            subscription.resetAt = seq;  // unreadable or from an earlier run
+            resets.increment();
+        }
+        subscribers.add(subscription);
+        return subscription;
+    }
+
+    public void unsubscribe(Subscription subscription) {
+        subscription.closed = true;
+        subscribers.remove(subscription);
+    }
+
+    /**
+     * SSE event id for a sequence number
+     */
+    public String eventId(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    // -1 = no id, not ours, or unreadable
+    private long parseSeq(String lastEventId) {
+        if (lastEventId == null) {
+            return -1;
+        }
+        int dash = lastEventId.indexOf('-');
+        try {
+            if (dash < 0 || Long.parseLong(lastEventId.substring(0, dash)) != epoch) {
+                return -1;
+            }
+            long parsed = Long.parseLong(lastEventId.substring(dash + 1));
+            return parsed >= 0 ? parsed : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // ========== STATS (/metrics) ==========
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public synchronized long getLastSeq() {
+        return seq;
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getOverflows() {
+        return overflows.sum();
+    }
+
+    public long getResets() {
+        return resets.sum();
+    }
+
+    /**
+     * One connected client: its own bounded buffer, drained by one sender thread
+     */
+    public static class Subscription {
+        private final BlockingQueue<BreweryChangeEvent> queue;
+        private volatile boolean overflowed;
+        private volatile boolean closed;
+        private long resetAt = -1;  // >= 0: client must re-fetch; deltas start after this seq
+
+        Subscription(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * @return The next event, or null if none arrived within the timeout (time for a keep-alive)
+         */
+        public BreweryChangeEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+            return queue.poll(timeout, unit);
+        }
+
+        public boolean isOverflowed() {
+            return overflowed && queue.isEmpty();  // deliver what's buffered first, then disconnect
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        public boolean needsReset() {
+            return resetAt >= 0;
+        }
+
+        public long getResetAt() {
+            return resetAt;
+        }
+    }
+}
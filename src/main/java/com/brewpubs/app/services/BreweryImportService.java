@@ -0,0 +1,289 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 12/19/25 @ 11:30 AM.
+ */
+
+import com.brewpubs.app.mappers.BreweryMapper;
+import com.brewpubs.app.models.Brewery;
+import com.brewpubs.app.models.ImportReport;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * BULK IMPORT SERVICE
+ * Streams a CSV or NDJSON catalog file into BREWERIES using JDBC batching
+ *
+ * PIPELINE (one line at a time → memory does not grow with file size):
+ * 1. Read a line          (BufferedReader, never the whole file)
+ * 2. Parse it             (CSV with a header row, or one JSON object per line)
+ * 3. Validate it          (same limits as schema.sql; bad rows are reported and skipped)
+ * 4. Queue the INSERT     (MyBatis ExecutorType.BATCH → JDBC addBatch)
+ * 5. Every batchSize rows → flushStatements() sends ONE executeBatch round trip
+ * 6. Every commitInterval rows → commit()
+ *
+ * BEFORE: one INSERT + one round trip (+ generated-key read) per brewery via BreweryMapper.insert
+ * AFTER: one round trip per batch, one commit per commit interval
+ *
+ * If the database rejects a batch, everything since the last commit is rolled back and reported
+ * as a batch failure; the import then continues with the next rows.
+ *
+ * Writes bypass BreweryService, so its count/indexes/caches are reloaded once at the end.
+ */
+@Service
+public class BreweryImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private final SqlSessionFactory sqlSessionFactory;
+    private final BreweryService breweryService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int commitInterval;
+
+    public BreweryImportService(SqlSessionFactory sqlSessionFactory,
+                                BreweryService breweryService,
+                                ObjectMapper objectMapper,
+                                @Value("${brewpubs.import.batch-size:1000}") int batchSize,
+                                @Value("${brewpubs.import.commit-interval:10000}") int commitInterval) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.breweryService = breweryService;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.commitInterval = Math.max(this.batchSize, commitInterval);
+    }
+
+    /**
+     * Import every row of the stream
+     * @param in CSV (header row required: name,address[,signature_beer,latitude,longitude]) or NDJSON
+     * @param format How to parse each line
+     * @return Counts, rows/sec, rejected rows and failed batches
+     */
+    public ImportReport importBreweries(InputStream in, Format format) throws IOException {
+        ImportReport report = new ImportReport();
+        long startNanos = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+            BreweryMapper mapper = session.getMapper(BreweryMapper.class);
+            Window window = new Window();
+            long lineNumber = 0;
+
+            Map<String, Integer> csvColumns = null;
+            if (format == Format.CSV) {
+                String header = reader.readLine();
+                lineNumber++;
+                if (header == null) {
+                    return report;  // empty file
+                }
+                csvColumns = parseHeader(header);
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                report.rowRead();
+
+                Brewery brewery;
+                try {
+                    brewery = (format == Format.CSV) ? fromCsv(line, csvColumns) : fromJson(line);
+                    validate(brewery);
+                } catch (IllegalArgumentException e) {
+                    report.rowInvalid(lineNumber, e.getMessage());
+                    continue;
+                }
+
+                mapper.insertForImport(brewery);  // queued, not sent yet
+                window.add(lineNumber);
+
+                if (window.pendingInBatch == batchSize) {
+                    flush(session, window, report);
+                }
+                if (window.flushedSinceCommit >= commitInterval) {
+                    commit(session, window, report);
+                }
+            }
+
+            flush(session, window, report);
+            commit(session, window, report);
+        } finally {
+            report.setElapsedMillis((System.nanoTime() - startNanos) / 1_000_000);
+            if (report.getRowsImported() > 0) {
+                breweryService.reloadFromDatabase();
+            }
+            System.out.println("✅ Brewery import finished: " + report);
+        }
+        return report;
+    }
+
+    // ========== BATCH / COMMIT ==========
+
+    private void flush(SqlSession session, Window window, ImportReport report) {
+        if (window.pendingInBatch == 0) {
+            return;
+        }
+        window.batchNumber++;
+        try {
+            session.flushStatements();  // ONE executeBatch() round trip
+            report.batchExecuted();
+            window.flushedSinceCommit += window.pendingInBatch;
+            window.pendingInBatch = 0;
+        } catch (PersistenceException e) {
+            session.rollback(true);  // drop everything since the last commit
+            report.batchFailed(window.batchNumber, window.firstLine, window.lastLine, rootMessage(e));
+            window.reset();
+        }
+    }
+
+    private void commit(SqlSession session, Window window, ImportReport report) {
+        if (window.flushedSinceCommit == 0) {
+            return;
+        }
+        try {
+            session.commit(true);
+            report.rowsImported(window.flushedSinceCommit);
+        } catch (PersistenceException e) {
+            session.rollback(true);
+            report.batchFailed(window.batchNumber, window.firstLine, window.lastLine, rootMessage(e));
+        }
+        window.reset();
+    }
+
+    /**
+     * Rows written since the last commit (line numbers are kept for failure reports)
+     */
+    private static final class Window {
+        int batchNumber;
+        int pendingInBatch;        // queued, not yet sent to the database
+        long flushedSinceCommit;   // sent, not yet committed
+        long firstLine = -1;
+        long lastLine = -1;
+
+        void add(long lineNumber) {
+            if (firstLine < 0) {
+                firstLine = lineNumber;
+            }
+            lastLine = lineNumber;
+            pendingInBatch++;
+        }
+
+        void reset() {
+            pendingInBatch = 0;
+            flushedSinceCommit = 0;
+            firstLine = -1;
+            lastLine = -1;
+        }
+    }
+
+    // ========== PARSING ==========
+
+    private static Map<String, Integer> parseHeader(String header) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = CsvLineParser.parse(header);
+        for (int i = 0; i < names.size(); i++) {
+            // "signature_beer", "signatureBeer" and "Signature Beer" all mean the same column
+            String key = names.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+            columns.put(key, i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("address")) {
+            throw new IllegalArgumentException("CSV header must contain 'name' and 'address' columns");
+        }
+        return columns;
+    }
+
+    private static Brewery fromCsv(String line, Map<String, Integer> columns) {
+        List<String> fields = CsvLineParser.parse(line);
+        Brewery brewery = new Brewery(
+                field(fields, columns, "name"),
+                field(fields, columns, "address"),
+                field(fields, columns, "signaturebeer"));
+        brewery.setLatitude(parseCoordinate(field(fields, columns, "latitude"), "latitude"));
+        brewery.setLongitude(parseCoordinate(field(fields, columns, "longitude"), "longitude"));
+        return brewery;
+    }
+
+    private Brewery fromJson(String line) {
+        try {
+            Brewery brewery = objectMapper.readValue(line, Brewery.class);
+            if (brewery == null) {  // the line is the JSON literal null
+                throw new IllegalArgumentException("Expected a JSON object, got null");
+            }
+            brewery.setBreweryId(null);  // ids are always assigned by the database
+            return brewery;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static Double parseCoordinate(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+    // ========== VALIDATION (mirrors schema.sql) ==========
+
+    private static void validate(Brewery brewery) {
+        requireText(brewery.getName(), "name", 100);
+        requireText(brewery.getAddress(), "address", 200);
+        if (brewery.getSignatureBeer() != null && brewery.getSignatureBeer().length() > 100) {
+            throw new IllegalArgumentException("signature_beer is longer than 100 characters");
+        }
+        if ((brewery.getLatitude() == null) != (brewery.getLongitude() == null)) {
+            throw new IllegalArgumentException("latitude and longitude must be given together");
+        }
+        if (brewery.hasLocation()
+                && (Math.abs(brewery.getLatitude()) > 90 || Math.abs(brewery.getLongitude()) > 180)) {
+            throw new IllegalArgumentException("latitude/longitude out of range");
+        }
+    }
+
+    private static void requireText(String value, String column, int maxLength) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(column + " is longer than " + maxLength + " characters");
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
@@ -0,0 +1,55 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 1/16/26 @ 9:50 AM.
+ */
+
+import com.brewpubs.app.metrics.LatencyHistogram;
+import com.brewpubs.app.models.BreweryInvalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * INVALIDATION BUS: keeps several instances of the app (behind a load balancer) coherent
+ *
+ * PROBLEM: every instance serves breweries from its own in-memory snapshot, indexes and rendered-page
+ * cache (all keyed by BreweryService's data version). A write on instance A updates A's copies only;
+ * B and C would keep serving the old brewery.
+ *
+ * SOLUTION: BreweryService publishes "brewery X changed" after every write; every OTHER instance
+ * receives it, re-reads that one row from the shared database and bumps its data version
+ * (→ its page cache and ETags move on too).
+ *
+ * IMPLEMENTATIONS (brewpubs.invalidation.bus):
+ * - loopback (default): in-process; application contexts in the same JVM that share a channel name
+ *                       see each other's writes. A single instance simply never hears anything.
+ * - database:           BREWERY_INVALIDATIONS log in the shared database, polled every poll-interval-ms
+ */
+public interface BreweryInvalidationBus {
+
+    /**
+     * @return This instance's id (messages with this origin are not delivered back to it)
+     */
+    String getNodeId();
+
+    /**
+     * Tell the other instances that one brewery changed (breweryId) or everything did (null)
+     */
+    void publish(Integer breweryId);
+
+    /**
+     * @param listener Called for every invalidation from ANOTHER instance
+     */
+    void subscribe(Consumer<BreweryInvalidation> listener);
+
+    // ========== STATS (/metrics) ==========
+
+    long getPublished();
+
+    long getReceived();
+
+    /**
+     * Time from publish (on the writing instance) to applied (here)
+     */
+    LatencyHistogram getLag();
+}
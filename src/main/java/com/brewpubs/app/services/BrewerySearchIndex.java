@@ -0,0 +1,323 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 12/17/25 @ 11:05 AM.
+ */
+
+import com.brewpubs.app.models.Brewery;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BrewerySearchIndex - in-memory inverted index for typeahead search
+ *
+ * HOW IT WORKS:
+ * 1. Every brewery's name, address and signatureBeer are split into lowercase tokens
+ *    e.g. "50 Industrial Way, Portland, ME" → [50, industrial, way, portland, me]
+ * 2. A sorted map (TreeMap) stores token → SORTED array of the brewery ids that contain it (posting list)
+ * 3. Prefix search = range scan of the sorted map: "ind" matches every key from "ind" up to "ind" + Character.MAX_VALUE
+ * 4. Multi-word queries ("industrial way") start from the rarest word's matches and keep only the
+ *    breweries whose own tokens also match every other word
+ * 5. The posting lists of the matching tokens are merged in id order, so the search STOPS as soon as
+ *    'limit' breweries were found: "ipa" at 100k breweries looks at ~limit ids, not all 100k
+ *    (see BrewerySearchIndexBenchmark)
+ *
+ * WHY NOT SQL?
+ * "WHERE name LIKE '%ipa%'" can't use an index → scans every row on every keystroke
+ *
+ * IDS ONLY: results are brewery ids; BreweryService turns them into Breweries through the catalog
+ * snapshot, so the index never keeps a second copy of every row (and each token String is stored once,
+ * shared by the posting list and every brewery that contains it)
+ *
+ * THREAD SAFETY: many readers (searches) OR one writer (BreweryService add/update/delete)
+ */
+public class BrewerySearchIndex {
+
+    private final NavigableMap<String, IdList> postings = new TreeMap<>();   // token → brewery ids, ascending
+    private final Map<Integer, String[]> tokensById = new HashMap<>();       // id → tokens (for matching + removal)
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // ========== WRITE (kept in sync by BreweryService) ==========
+
+    public void rebuild(Collection<Brewery> breweries) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            tokensById.clear();
+            for (Brewery brewery : breweries) {
+                addInternal(brewery);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace one brewery (insert and update both call this)
+     */
+    public void put(Brewery brewery) {
+        if (brewery == null || brewery.getBreweryId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeInternal(brewery.getBreweryId());
+            addInternal(brewery);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer breweryId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(breweryId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ========== READ ==========
+
+    /**
+     * Search breweries whose name/address/signature beer contain words starting with every query word
+     * @param query Free text, e.g. "ipa" or "industrial wa"
+     * @param limit Maximum number of results
+     * @return Ids of the matching breweries, ascending (empty list for a blank query)
+     */
+    public List<Integer> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Start from the most selective word: "ipa 12" → only the ids matching "12" are looked at
+            String seed = terms.get(0);
+            long seedSize = estimateMatches(seed, Long.MAX_VALUE);
+            for (String term : terms.subList(1, terms.size())) {
+                long size = estimateMatches(term, seedSize);
+                if (size < seedSize) {
+                    seed = term;
+                    seedSize = size;
+                }
+            }
+
+            // Walk the seed's posting lists merged in ascending id order (smallest id first); every
+            // other word is checked against the candidate's own (few) tokens. The first 'limit' matches
+            // ARE the first page → stop there, however many ids the seed word has.
+            List<Integer> results = new ArrayList<>(Math.min(limit, 64));
+            PriorityQueue<Cursor> merge = new PriorityQueue<>();
+            for (IdList postingList : tokensWithPrefix(seed).values()) {
+                merge.add(new Cursor(postingList));
+            }
+            int lastId = Integer.MIN_VALUE;
+            while (!merge.isEmpty() && results.size() < limit) {
+                Cursor cursor = merge.poll();
+                int id = cursor.current();
+                if (cursor.advance()) {
+                    merge.add(cursor);
+                }
+                if (id == lastId) {
+                    continue;  // same brewery via another token with this prefix ("ind" → industrial, indie)
+                }
+                lastId = id;
+                if (matchesAll(tokensById.get(id), terms)) {
+                    results.add(id);
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tokensById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== INTERNALS (caller holds the lock) ==========
+
+    private NavigableMap<String, IdList> tokensWithPrefix(String prefix) {
+        // subMap(prefix .. prefix + MAX_VALUE) = every token that starts with prefix
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+    }
+
+    /**
+     * Upper bound on how many ids match a prefix (stops counting once it passes 'stopAbove')
+     */
+    private long estimateMatches(String prefix, long stopAbove) {
+        long total = 0;
+        for (IdList postingList : tokensWithPrefix(prefix).values()) {
+            total += postingList.size;
+            if (total > stopAbove) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private static boolean matchesAll(String[] tokens, List<String> terms) {
+        for (String term : terms) {
+            boolean found = false;
+            for (String token : tokens) {
+                if (token.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addInternal(Brewery brewery) {
+        Integer id = brewery.getBreweryId();
+        String[] tokens = tokensOf(brewery);
+        for (int i = 0; i < tokens.length; i++) {
+            IdList ids = postings.computeIfAbsent(tokens[i], IdList::new);
+            ids.add(id);
+            tokens[i] = ids.token;  // "portland" stored once, not once per brewery in Portland
+        }
+        tokensById.put(id, tokens);  // remember what we indexed (to match other words and to remove it later)
+    }
+
+    private void removeInternal(Integer breweryId) {
+        String[] oldTokens = tokensById.remove(breweryId);
+        if (oldTokens == null) {
+            return;
+        }
+        for (String token : oldTokens) {
+            IdList ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(breweryId);
+                if (ids.size == 0) {
+                    postings.remove(token);  // keep the map small → faster range scans
+                }
+            }
+        }
+    }
+
+    private static String[] tokensOf(Brewery brewery) {
+        Set<String> tokens = new LinkedHashSet<>();
+        tokens.addAll(tokenize(brewery.getName()));
+        tokens.addAll(tokenize(brewery.getAddress()));
+        tokens.addAll(tokenize(brewery.getSignatureBeer()));
+        return tokens.toArray(new String[0]);
+    }
+
+    /**
+     * Lowercase and split on anything that isn't a letter or digit
+     * "The Substance (Double IPA)" → [the, substance, double, ipa]
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    // ========== POSTING LISTS ==========
+
+    /**
+     * Brewery ids containing one token, kept sorted (an int[] instead of a HashSet<Integer>: no boxing,
+     * and in-order traversal for the merge). New breweries get the highest id so far → add() is
+     * almost always an append; updates/deletes shift the tail of one short list.
+     */
+    private static final class IdList {
+        final String token;
+        int[] ids = new int[2];
+        int size;
+
+        IdList(String token) {
+            this.token = token;
+        }
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int at = Arrays.binarySearch(ids, 0, size, id);
+                if (at >= 0) {
+                    return;  // already there
+                }
+                insertAt(-at - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        private void insertAt(int at, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+                size--;
+            }
+        }
+    }
+
+    /**
+     * Position in one posting list during a search, ordered by the id it points at
+     */
+    private static final class Cursor implements Comparable<Cursor> {
+        private final IdList list;
+        private int position;
+
+        Cursor(IdList list) {
+            this.list = list;
+        }
+
+        int current() {
+            return list.ids[position];
+        }
+
+        boolean advance() {
+            return ++position < list.size;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return Integer.compare(current(), other.current());
+        }
+    }
+}
@@ -6,9 +6,33 @@ package com.brewpubs.app.services;
 
 import com.brewpubs.app.mappers.BreweryMapper;
 import com.brewpubs.app.models.Brewery;
+import com.brewpubs.app.models.BreweryBatchUpdateResult;
+import com.brewpubs.app.models.BreweryChangeEvent;
+import com.brewpubs.app.models.BreweryInvalidation;
+import com.brewpubs.app.models.BreweryPage;
+import com.brewpubs.app.models.NearbyBrewery;
+import jakarta.annotation.PostConstruct;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * SERVICE LAYER
@@ -132,44 +156,469 @@ public class BreweryService {
      * - Can combine multiple mapper calls in one transaction
      */
 
-        private final BreweryMapper breweryMapper;
+        // Page size limits for keyset pagination (protects against ?limit=1000000)
+        public static final int DEFAULT_PAGE_SIZE = 50;
+        public static final int MAX_PAGE_SIZE = 200;
 
-        // Constructor injection - Spring injects the mapper
-        public BreweryService(BreweryMapper breweryMapper) {
+        private final BreweryMapper breweryMapper;
+        private final SqlSessionFactory sqlSessionFactory;  // BATCH sessions for updateBreweries
+
+        // CATALOG SNAPSHOT: the whole table as column arrays (see BreweryCatalogSnapshot)
+        // Lists, pages and by-id lookups are served from it → page views never reach H2
+        // Every write method below swaps in a new snapshot with just that row changed
+        private final AtomicReference<BreweryCatalogSnapshot> catalog =
+                new AtomicReference<>(BreweryCatalogSnapshot.empty());
+
+        // RELOAD LOCK: a reload scans the table and then replaces the snapshot wholesale. A write that
+        // commits while the scan runs would land in the OLD snapshot and be lost when the new one goes in.
+        // Writes hold the read lock (many at once) from their SQL until their row is in the snapshot;
+        // reload holds the write lock (waits for in-flight writes, keeps new ones out until the swap)
+        private final ReadWriteLock reloadLock = new ReentrantReadWriteLock();
+
+        // INCREMENTAL COUNT: seeded with ONE "SELECT COUNT(*)" at startup, then kept up to date by
+        // addBrewery/deleteBrewery → home page and list page never run a COUNT query
+        private final AtomicInteger breweryCount = new AtomicInteger();
+
+        // DATA VERSION: goes up by one on every successful write → "has anything changed since version N?"
+        // Used for ETags (304 Not Modified) and for caching whole rendered pages per version
+        private final AtomicLong dataVersion = new AtomicLong();
+
+        // AGGREGATES: breweries per town / per beer style, adjusted by every write (no GROUP BY per page view)
+        private final BreweryCatalogAggregates aggregates = new BreweryCatalogAggregates();
+
+        // SEARCH INDEX: token/prefix index over name, address, signatureBeer (no LIKE '%..%' scans)
+        private final BrewerySearchIndex searchIndex = new BrewerySearchIndex();
+
+        // SPATIAL INDEX: grid over latitude/longitude for "nearest breweries" (no full-table distance scan)
+        private final BrewerySpatialIndex spatialIndex;
+
+        // CHANGE FEED: every successful write is published here → SSE subscribers get deltas, not full lists
+        private final BreweryChangeFeed changeFeed;
+
+        // INVALIDATION BUS: tells the OTHER instances behind the load balancer which brewery changed,
+        // and brings their changes into this instance (see onInvalidation)
+        private final BreweryInvalidationBus invalidationBus;
+
+        // Constructor injection - Spring injects the mapper (+ index settings from application.properties)
+        public BreweryService(BreweryMapper breweryMapper,
+                              SqlSessionFactory sqlSessionFactory,
+                              BreweryChangeFeed changeFeed,
+                              BreweryInvalidationBus invalidationBus,
+                              @Value("${brewpubs.spatial.cell-size-degrees:0.01}") double spatialCellSizeDegrees) {
             this.breweryMapper = breweryMapper;
+            this.sqlSessionFactory = sqlSessionFactory;
+            this.changeFeed = changeFeed;
+            this.invalidationBus = invalidationBus;
+            this.spatialIndex = new BrewerySpatialIndex(spatialCellSizeDegrees);
             System.out.println("✅ BreweryService initialized with database mapper");
         }
 
+        // Runs once, after Spring has injected the mapper (and schema.sql/data.sql have run)
+        @PostConstruct
+        void initialize() {
+            reload();
+            invalidationBus.subscribe(this::onInvalidation);
+        }
+
+        /**
+         * Re-read everything after writes that bypass this service (e.g. the bulk CSV/NDJSON import);
+         * the other instances are told to do the same
+         */
+        public void reloadFromDatabase() {
+            reload();
+            invalidationBus.publish(null);
+        }
+
+        /**
+         * ONE full read (projection query, streamed) builds the catalog snapshot; the count, search index
+         * and spatial index are seeded from it
+         */
+        private void reload() {
+            reloadLock.writeLock().lock();
+            try {
+                reloadLocked();
+            } finally {
+                reloadLock.writeLock().unlock();
+            }
+        }
+
+        private void reloadLocked() {
+            BreweryCatalogSnapshot.Builder builder = new BreweryCatalogSnapshot.Builder();
+            breweryMapper.scanCatalog(context -> builder.add(context.getResultObject()));
+            BreweryCatalogSnapshot snapshot = builder.build();
+
+            List<Brewery> breweries = snapshot.toList();
+            searchIndex.rebuild(breweries);
+            spatialIndex.rebuild(breweries);
+            // no write can run here (we hold the reload write lock) → no delta lands on the old counts;
+            // fresh counts and the fresh snapshot go in back to back
+            aggregates.rebuild(breweries);
+            catalog.set(snapshot);
+            breweryCount.set(snapshot.size());
+            dataVersion.incrementAndGet();
+            changeFeed.publish(BreweryChangeEvent.Type.RELOADED, null, null);
+            System.out.println("✅ BreweryService seeded snapshot + count + indexes: " + breweryCount.get()
+                    + " breweries (" + spatialIndex.size() + " with a location, "
+                    + snapshot.getDistinctAddressSuffixes() + " distinct towns)");
+        }
+
         // ========== READ OPERATIONS ==========
 
-        public List<Brewery> getAllBreweries() {
-            return breweryMapper.getAllBreweries();
+        public List<Brewery> getAllBreweries() {  // from the snapshot, in brewery_id order
+            return catalog.get().toList();
+        }
+
+        public Brewery getBreweryById(Integer id) {  // binary search in the snapshot, no query
+            return id == null ? null : catalog.get().findById(id);
         }
 
-        public Brewery getBreweryById(Integer id) {
-            return breweryMapper.getBreweryById(id);
+        public int getBreweryCount() {  // O(1), no database call
+            return breweryCount.get();
         }
 
-        public int getBreweryCount() {
-            return breweryMapper.getBreweryCount();
+        public BreweryCatalogAggregates.View getCatalogStats() {  // per town / per style, O(1) between writes
+            return aggregates.getView();
+        }
+
+        // ========== SEARCH ==========
+
+        /**
+         * Typeahead search over name, address and signature beer
+         * @param query Words or word prefixes, e.g. "ipa", "industrial wa"
+         * @param limit Maximum results (clamped to 1..MAX_PAGE_SIZE)
+         * @return Breweries matching EVERY word, in brewery_id order
+         */
+        public List<Brewery> searchBreweries(String query, int limit) {
+            List<Integer> ids = searchIndex.search(query, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+            BreweryCatalogSnapshot snapshot = catalog.get();
+            List<Brewery> breweries = new ArrayList<>(ids.size());
+            for (int id : ids) {
+                Brewery brewery = snapshot.findById(id);
+                if (brewery != null) {  // deleted between the index lookup and now
+                    breweries.add(brewery);
+                }
+            }
+            return breweries;
+        }
+
+        /**
+         * Nearest breweries to a point (e.g. the user's phone location)
+         * @param latitude WGS84 latitude in degrees
+         * @param longitude WGS84 longitude in degrees
+         * @param k How many breweries to return (clamped to 1..MAX_PAGE_SIZE)
+         * @return Up to k breweries that have a location, closest first
+         */
+        public List<NearbyBrewery> findNearestBreweries(double latitude, double longitude, int k) {
+            List<BrewerySpatialIndex.Hit> hits =
+                    spatialIndex.nearest(latitude, longitude, Math.max(1, Math.min(k, MAX_PAGE_SIZE)));
+            BreweryCatalogSnapshot snapshot = catalog.get();
+            List<NearbyBrewery> nearby = new ArrayList<>(hits.size());
+            for (BrewerySpatialIndex.Hit hit : hits) {
+                Brewery brewery = snapshot.findById(hit.breweryId());
+                if (brewery != null) {
+                    nearby.add(new NearbyBrewery(brewery, hit.distanceKm()));
+                }
+            }
+            return nearby;
+        }
+
+        // ========== PAGED / STREAMING READS ==========
+
+        /**
+         * Get one page of breweries (keyset pagination on brewery_id)
+         * @param after Last brewery_id the client has already seen (null = start from the beginning)
+         * @param limit Requested page size (clamped to 1..MAX_PAGE_SIZE)
+         * @return Page of breweries + the cursor for the next page + the total brewery count
+         *
+         * Reads limit + 1 rows from the snapshot: if the extra row is there, there is a next page
+         * Only the rows on the page become Brewery objects
+         */
+        public BreweryPage getBreweryPage(Integer after, int limit) {
+            int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            int afterId = (after == null) ? 0 : Math.max(0, after);
+
+            List<Brewery> rows = catalog.get().rowsAfter(afterId, size + 1);
+            if (rows.size() <= size) {
+                return new BreweryPage(rows, null, getBreweryCount());  // last page
+            }
+            List<Brewery> page = new ArrayList<>(rows.subList(0, size));
+            return new BreweryPage(page, page.get(size - 1).getBreweryId(), getBreweryCount());
+        }
+
+        /**
+         * Visit every brewery without loading the whole table into a List
+         * @param action Called once per brewery, in brewery_id order
+         *
+         * Memory stays constant: only the current row (plus the driver's fetch buffer) is held at a time.
+         * @Transactional keeps the SqlSession (and its ResultSet) open while we iterate the Cursor
+         */
+        @Transactional(readOnly = true)
+        public void forEachBrewery(Consumer<Brewery> action) {
+            try (Cursor<Brewery> cursor = breweryMapper.streamAllBreweries()) {
+                cursor.forEach(action);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to close brewery cursor", e);
+            }
         }
 
         // ========== CREATE OPERATIONS ==========
 
         public int addBrewery(Brewery brewery) {
-            return breweryMapper.insert(brewery);
+            return whileNotReloading(() -> insert(brewery));
+        }
+
+        private int insert(Brewery brewery) {
+            int rows = breweryMapper.insert(brewery);
+            breweryCount.addAndGet(rows);
+            if (rows > 0) {
+                brewery.setVersion(0);  // column default; breweryId was filled in by useGeneratedKeys
+                Brewery saved = swapRow(brewery.getBreweryId(), snapshot -> snapshot.with(brewery));
+                searchIndex.put(saved);
+                spatialIndex.put(saved);
+                dataVersion.incrementAndGet();  // last: readers that see the new version see the new data
+                changeFeed.publish(BreweryChangeEvent.Type.CREATED, brewery.getBreweryId(), saved);  // a copy the caller can't modify
+                invalidationBus.publish(brewery.getBreweryId());
+            }
+            return rows;
         }
 
         // ========== UPDATE OPERATIONS ==========
 
+        /**
+         * Update one brewery
+         * - brewery.version set  → COMPARE-AND-SET: 0 rows if the row changed since that version (conflict)
+         * - brewery.version null → "last writer wins" (e.g. older API clients): still a compare-and-set,
+         *   against whatever version the row has right now, retried if another write slips in between
+         *   → we always know exactly which version we wrote (no update-then-read-back race)
+         * @return 1 if saved (brewery.version then holds the NEW version), 0 if conflicting or missing
+         */
         public int updateBrewery(Brewery brewery) {
-            return breweryMapper.update(brewery);
+            return whileNotReloading(() -> update(brewery));
+        }
+
+        private int update(Brewery brewery) {
+            if (brewery.getVersion() != null) {
+                return updateIfVersion(brewery);
+            }
+            while (true) {
+                Brewery current = breweryMapper.getBreweryById(brewery.getBreweryId());
+                if (current == null) {
+                    brewery.setVersion(null);
+                    return 0;
+                }
+                brewery.setVersion(current.getVersion());
+                if (updateIfVersion(brewery) > 0) {
+                    return 1;
+                }
+                // someone else's write landed between our read and our UPDATE → try again on top of it
+            }
+        }
+
+        private int updateIfVersion(Brewery brewery) {
+            int readVersion = brewery.getVersion();
+            int rows = breweryMapper.updateIfVersion(brewery);
+            if (rows > 0) {
+                brewery.setVersion(readVersion + 1);  // exactly what the row holds now
+                applyUpdated(List.of(brewery));
+            }
+            return rows;
+        }
+
+        /**
+         * Versioned BATCH update: every brewery must carry the version it was read at
+         * All compare-and-set UPDATEs go to H2 in one JDBC batch and one commit. A conflicting row
+         * doesn't fail the batch - its update count is simply 0 - so the rest are saved and the
+         * conflicting ids come back for the caller to re-read and retry.
+         */
+        public BreweryBatchUpdateResult updateBreweries(List<Brewery> breweries) {
+            return whileNotReloading(() -> updateBatch(breweries));
+        }
+
+        private BreweryBatchUpdateResult updateBatch(List<Brewery> breweries) {
+            List<Brewery> updated = new ArrayList<>();
+            List<Integer> conflicts = new ArrayList<>();
+            List<Integer> notFound = new ArrayList<>();
+            if (breweries.isEmpty()) {
+                return new BreweryBatchUpdateResult(updated, conflicts, notFound);
+            }
+
+            List<Integer> updateCounts = new ArrayList<>(breweries.size());
+            try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+                BreweryMapper batchMapper = session.getMapper(BreweryMapper.class);
+                for (Brewery brewery : breweries) {
+                    batchMapper.updateIfVersion(brewery);
+                }
+                // one BatchResult per run of identical SQL (here: one), update counts in submission order
+                for (BatchResult result : session.flushStatements()) {
+                    for (int count : result.getUpdateCounts()) {
+                        updateCounts.add(count);
+                    }
+                }
+                session.commit();
+            }
+
+            for (int i = 0; i < breweries.size(); i++) {
+                Brewery brewery = breweries.get(i);
+                if (updateCounts.get(i) == 1) {
+                    brewery.setVersion(brewery.getVersion() + 1);
+                    updated.add(brewery);
+                } else if (catalog.get().findById(brewery.getBreweryId()) == null) {
+                    notFound.add(brewery.getBreweryId());
+                } else {
+                    conflicts.add(brewery.getBreweryId());
+                }
+            }
+            applyUpdated(updated);  // the whole batch → ONE new snapshot
+            return new BreweryBatchUpdateResult(updated, conflicts, notFound);
+        }
+
+        // Saved rows → snapshot (one edit for all of them) + indexes + data version + change feed
+        // The indexes get each row AS THE SNAPSHOT NOW HOLDS IT (a private copy): if a newer version
+        // already landed, that one stays indexed, and later edits to the caller's objects can't leak in.
+        // replace, not put: an update must not bring back a row deleted in the meantime
+        private void applyUpdated(List<Brewery> saved) {
+            if (saved.isEmpty()) {
+                return;
+            }
+            List<Integer> ids = saved.stream().map(Brewery::getBreweryId).toList();
+            List<Brewery> applied = swapRows(ids, snapshot -> {
+                BreweryCatalogSnapshot.Editor editor = snapshot.edit();
+                saved.forEach(editor::replace);
+                return editor.build();
+            });
+            for (int i = 0; i < ids.size(); i++) {
+                Brewery row = applied.get(i);
+                if (row == null) {
+                    continue;  // deleted meanwhile: the delete already cleaned up the indexes
+                }
+                searchIndex.put(row);
+                spatialIndex.put(row);
+            }
+            dataVersion.incrementAndGet();
+            for (int i = 0; i < ids.size(); i++) {
+                if (applied.get(i) != null) {
+                    changeFeed.publish(BreweryChangeEvent.Type.UPDATED, ids.get(i), applied.get(i));
+                }
+            }
+            ids.forEach(invalidationBus::publish);
         }
 
         // ========== DELETE OPERATIONS ==========
 
         public int deleteBrewery(Integer id) {
-            return breweryMapper.delete(id);
+            return whileNotReloading(() -> delete(id));
+        }
+
+        private int delete(Integer id) {
+            int rows = breweryMapper.delete(id);
+            breweryCount.addAndGet(-rows);  // rows = 0 when the id didn't exist
+            swapRow(id, snapshot -> snapshot.without(id));
+            searchIndex.remove(id);
+            spatialIndex.remove(id);
+            if (rows > 0) {
+                dataVersion.incrementAndGet();
+                changeFeed.publish(BreweryChangeEvent.Type.DELETED, id, null);
+                invalidationBus.publish(id);
+            }
+            return rows;
+        }
+
+        // ========== WRITES FROM OTHER INSTANCES (invalidation bus) ==========
+
+        /**
+         * Another instance changed a brewery: re-read just that row from the shared database and patch
+         * the snapshot, indexes and count (the database is the source of truth - the message only says WHICH row)
+         * Not re-published on the bus (no ping-pong); it does go to this instance's change feed subscribers
+         */
+        void onInvalidation(BreweryInvalidation invalidation) {
+            if (invalidation.isEverything()) {
+                reload();
+                return;
+            }
+            whileNotReloading(() -> {
+                refreshRow(invalidation.getBreweryId());
+                return null;
+            });
+        }
+
+        private void refreshRow(int id) {
+            Brewery current = breweryMapper.getBreweryById(id);
+            boolean existed = catalog.get().findById(id) != null;
+            if (current == null) {
+                if (existed) {
+                    swapRow(id, snapshot -> snapshot.without(id));
+                    searchIndex.remove(id);
+                    spatialIndex.remove(id);
+                    breweryCount.decrementAndGet();
+                    dataVersion.incrementAndGet();
+                    changeFeed.publish(BreweryChangeEvent.Type.DELETED, id, null);
+                }
+                return;
+            }
+            Brewery applied = swapRow(id, snapshot -> snapshot.with(current));  // never goes back to an older version
+            searchIndex.put(applied);
+            spatialIndex.put(applied);
+            if (!existed) {
+                breweryCount.incrementAndGet();
+            }
+            dataVersion.incrementAndGet();  // → this instance's page cache and ETags move on too
+            changeFeed.publish(existed ? BreweryChangeEvent.Type.UPDATED : BreweryChangeEvent.Type.CREATED,
+                    id, applied);
+        }
+
+        // ========== SNAPSHOT SWAP ==========
+
+        /**
+         * Run one write (SQL + snapshot/index update) under the reload READ lock, so a reload can't
+         * start between the two and drop the change (see reloadLock)
+         */
+        private <T> T whileNotReloading(Supplier<T> write) {
+            reloadLock.readLock().lock();
+            try {
+                return write.get();
+            } finally {
+                reloadLock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Swap in a snapshot with one row changed (like catalog.updateAndGet), and move the aggregates
+         * from the row as it was in the REPLACED snapshot to the row as it is in the new one.
+         * Concurrent writers each get their own before/after pair, so no delta is counted twice or lost.
+         * @return the row in the new snapshot (a copy), null if it's gone
+         */
+        private Brewery swapRow(int id, UnaryOperator<BreweryCatalogSnapshot> change) {
+            return swapRows(List.of(id), change).get(0);
+        }
+
+        /**
+         * Same for a change to several rows at once (one snapshot swap for the whole batch)
+         * @return the rows in the new snapshot, in the order of ids (null where a row is gone)
+         */
+        private List<Brewery> swapRows(List<Integer> ids, UnaryOperator<BreweryCatalogSnapshot> change) {
+            BreweryCatalogSnapshot before;
+            BreweryCatalogSnapshot after;
+            do {
+                before = catalog.get();
+                after = change.apply(before);
+            } while (!catalog.compareAndSet(before, after));
+            List<Brewery> rows = new ArrayList<>(ids.size());
+            for (int id : ids) {
+                rows.add(after.findById(id));
+            }
+            for (int id : new LinkedHashSet<>(ids)) {  // each row's delta once, even if listed twice
+                aggregates.replace(before.findById(id), after.findById(id));
+            }
+            return rows;
+        }
+
+        // ========== DATA VERSION ==========
+
+        /**
+         * Current data version (starts at 1 after the startup load, +1 per successful write)
+         */
+        public long getDataVersion() {
+            return dataVersion.get();
         }
     }
 
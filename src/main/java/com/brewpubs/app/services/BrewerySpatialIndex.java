@@ -0,0 +1,290 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 12/18/25 @ 3:35 PM.
+ */
+
+import com.brewpubs.app.models.Brewery;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BrewerySpatialIndex - uniform grid over latitude/longitude for "k nearest breweries"
+ *
+ * HOW IT WORKS:
+ * 1. The map is cut into square cells (cellSizeDegrees on a side, ~1 km by default)
+ * 2. Each brewery with a location is stored in the cell it falls into, as its id + coordinates only
+ *    (packed int[]/double[] arrays, not Brewery objects: BreweryService looks the rows up in its
+ *    catalog snapshot, so the index doesn't keep a second copy of every brewery)
+ * 3. A nearest-k query starts at the user's cell and checks rings of cells around it:
+ *    ring 0 = the cell itself, ring 1 = the 8 neighbours, ring 2 = the next 16, ...
+ * 4. It stops as soon as k breweries were found AND no unvisited ring can be closer than the k-th one
+ *
+ * COST: only the cells near the user are visited, instead of computing a distance to every brewery
+ *
+ * THREAD SAFETY: many readers (queries) OR one writer (BreweryService add/update/delete)
+ */
+public class BrewerySpatialIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LAT = 111.195;  // 2 * PI * R / 360
+
+    private final double cellSizeDegrees;
+    private final Map<Long, Cell> cells = new HashMap<>();            // cell key → breweries in cell
+    private final Map<Integer, Cell> cellById = new HashMap<>();      // brewery id → its cell (for removal)
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Bounding box of occupied cells: tells a query when there is nothing left to visit
+    private int minCellX = Integer.MAX_VALUE, maxCellX = Integer.MIN_VALUE;
+    private int minCellY = Integer.MAX_VALUE, maxCellY = Integer.MIN_VALUE;
+
+    public BrewerySpatialIndex(double cellSizeDegrees) {
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    // ========== WRITE (kept in sync by BreweryService) ==========
+
+    public void rebuild(Collection<Brewery> breweries) {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            cellById.clear();
+            minCellX = minCellY = Integer.MAX_VALUE;
+            maxCellX = maxCellY = Integer.MIN_VALUE;
+            for (Brewery brewery : breweries) {
+                addInternal(brewery);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add, move or (if it no longer has a location) drop one brewery
+     */
+    public void put(Brewery brewery) {
+        if (brewery == null || brewery.getBreweryId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeInternal(brewery.getBreweryId());
+            addInternal(brewery);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer breweryId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(breweryId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ========== READ ==========
+
+    /**
+     * Find the k breweries closest to (latitude, longitude)
+     * @return Up to k hits (brewery id + great-circle distance in km), closest first
+     */
+    public List<Hit> nearest(double latitude, double longitude, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (cellById.isEmpty()) {
+                return List.of();
+            }
+            int cx = cellX(longitude);
+            int cy = cellY(latitude);
+            int lastRing = Math.max(
+                    Math.max(Math.abs(cx - minCellX), Math.abs(cx - maxCellX)),
+                    Math.max(Math.abs(cy - minCellY), Math.abs(cy - maxCellY)));
+
+            // Max-heap of the best k so far: the root is the k-th closest (the one to beat)
+            PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::distanceKm).reversed());
+
+            for (int ring = 0; ring <= lastRing; ring++) {
+                // Any brewery in this ring (or further) is at least (ring - 1) cells away
+                if (best.size() == k && (ring - 1) * minKmPerCell(latitude, ring) > best.peek().distanceKm()) {
+                    break;
+                }
+                // Far from everything (or a sparse map): the ring has more cells than are occupied,
+                // so looking at every occupied cell once is cheaper than walking empty rings
+                if (8L * ring > cells.size()) {
+                    best.clear();
+                    for (Cell cell : cells.values()) {
+                        offerAll(cell, latitude, longitude, k, best);
+                    }
+                    break;
+                }
+                visitRing(cx, cy, ring, latitude, longitude, k, best);
+            }
+
+            List<Hit> results = new ArrayList<>(best);
+            results.sort(Comparator.comparingDouble(Hit::distanceKm));
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return cellById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Great-circle (haversine) distance between two points, in km
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * One result of nearest(): which brewery, and how far away
+     */
+    public record Hit(int breweryId, double distanceKm) {
+    }
+
+    // ========== INTERNALS (caller holds the lock) ==========
+
+    private void visitRing(int cx, int cy, int ring, double latitude, double longitude,
+                           int k, PriorityQueue<Hit> best) {
+        for (int x = cx - ring; x <= cx + ring; x++) {
+            for (int y = cy - ring; y <= cy + ring; y++) {
+                // only the border of the square: the inside was visited by earlier rings
+                if (Math.abs(x - cx) != ring && Math.abs(y - cy) != ring) {
+                    continue;
+                }
+                Cell cell = cells.get(cellKey(x, y));
+                if (cell != null) {
+                    offerAll(cell, latitude, longitude, k, best);
+                }
+            }
+        }
+    }
+
+    private static void offerAll(Cell cell, double latitude, double longitude, int k, PriorityQueue<Hit> best) {
+        for (int i = 0; i < cell.size; i++) {
+            double d = distanceKm(latitude, longitude, cell.latitudes[i], cell.longitudes[i]);
+            if (best.size() < k) {
+                best.add(new Hit(cell.ids[i], d));
+            } else if (d < best.peek().distanceKm()) {
+                best.poll();
+                best.add(new Hit(cell.ids[i], d));
+            }
+        }
+    }
+
+    private void addInternal(Brewery brewery) {
+        if (!brewery.hasLocation()) {
+            return;  // no coordinates → can't be found by location
+        }
+        int x = cellX(brewery.getLongitude());
+        int y = cellY(brewery.getLatitude());
+        long key = cellKey(x, y);
+        Cell cell = cells.computeIfAbsent(key, Cell::new);
+        cell.add(brewery.getBreweryId(), brewery.getLatitude(), brewery.getLongitude());
+        cellById.put(brewery.getBreweryId(), cell);
+        minCellX = Math.min(minCellX, x);
+        maxCellX = Math.max(maxCellX, x);
+        minCellY = Math.min(minCellY, y);
+        maxCellY = Math.max(maxCellY, y);
+        // (bounds only grow; after removals they may be a little too wide, which is still correct)
+    }
+
+    private void removeInternal(Integer breweryId) {
+        Cell cell = cellById.remove(breweryId);
+        if (cell == null) {
+            return;
+        }
+        cell.remove(breweryId);
+        if (cell.size == 0) {
+            cells.remove(cell.key);
+        }
+    }
+
+    /**
+     * Smallest km covered by one cell step within 'ring' cells of the given latitude
+     * (a degree of longitude shrinks towards the poles, so use the most poleward row)
+     */
+    private double minKmPerCell(double latitude, int ring) {
+        double poleward = Math.min(90.0, Math.abs(latitude) + (ring + 1) * cellSizeDegrees);
+        return cellSizeDegrees * KM_PER_DEGREE_LAT * Math.cos(Math.toRadians(poleward));
+    }
+
+    private int cellX(double longitude) {
+        return (int) Math.floor(longitude / cellSizeDegrees);
+    }
+
+    private int cellY(double latitude) {
+        return (int) Math.floor(latitude / cellSizeDegrees);
+    }
+
+    private static long cellKey(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);  // pack two ints into one long
+    }
+
+    // ========== CELLS ==========
+
+    /**
+     * The breweries in one cell as parallel arrays (id, latitude, longitude) - no per-brewery object
+     */
+    private static final class Cell {
+        final long key;
+        int[] ids = new int[4];
+        double[] latitudes = new double[4];
+        double[] longitudes = new double[4];
+        int size;
+
+        Cell(long key) {
+            this.key = key;
+        }
+
+        void add(int id, double latitude, double longitude) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                latitudes = Arrays.copyOf(latitudes, size * 2);
+                longitudes = Arrays.copyOf(longitudes, size * 2);
+            }
+            ids[size] = id;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            size++;
+        }
+
+        void remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {  // order within a cell doesn't matter → move the last one in
+                    size--;
+                    ids[i] = ids[size];
+                    latitudes[i] = latitudes[size];
+                    longitudes[i] = longitudes[size];
+                    return;
+                }
+            }
+        }
+    }
+}
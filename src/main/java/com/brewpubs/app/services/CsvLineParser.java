@@ -0,0 +1,57 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 12/19/25 @ 10:15 AM.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CsvLineParser - splits ONE line of CSV into fields (RFC 4180 quoting)
+ *
+ * EXAMPLES:
+ * Allagash Brewing Company,"50 Industrial Way, Portland, ME",Allagash White
+ *   → [Allagash Brewing Company, 50 Industrial Way, Portland, ME, Allagash White]
+ * "Say ""Cheers""",x → [Say "Cheers", x]
+ *
+ * LIMITATION: a quoted field may not contain a line break (importers read line by line)
+ */
+public final class CsvLineParser {
+
+    private CsvLineParser() { }  // static helpers only
+
+    public static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');  // "" inside quotes = one literal quote
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
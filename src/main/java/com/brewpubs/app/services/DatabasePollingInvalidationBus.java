@@ -0,0 +1,274 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 1/16/26 @ 11:05 AM.
+ */
+
+import com.brewpubs.app.mappers.BreweryInvalidationMapper;
+import com.brewpubs.app.metrics.LatencyHistogram;
+import com.brewpubs.app.models.BreweryInvalidation;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * SHARED-DATABASE invalidation bus (brewpubs.invalidation.bus=database)
+ *
+ * HOW:
+ * - publish(): INSERT one row into BREWERY_INVALIDATIONS (origin, brewery id, timestamp)
+ * - one poller thread per instance: every poll-interval-ms, "SELECT ... WHERE invalidation_id > lastSeen"
+ *   (primary-key range scan) → deliver the rows other instances wrote, remember the highest id
+ * - rows older than retention-ms are deleted now and then (every instance has read them long ago)
+ *
+ * STARTUP: reading starts at the newest id that exists when this bean is created - BEFORE
+ * BreweryService loads its snapshot, so a write that lands in between is delivered (re-reading a row
+ * is harmless) rather than missed.
+ *
+ * GAPS: ids are handed out when a row is INSERTed, not when it commits. Instance A can take id 41,
+ * instance B id 42, and B commit first: a poll then sees 42 but not 41, and "id > lastSeen" alone would
+ * skip 41 forever. So every id jumped over is remembered as a gap, and the next polls read again from
+ * the oldest open gap (delivering a gap row when it shows up, skipping rows already delivered).
+ * A gap that stays empty for gap-timeout-ms (a rolled-back insert, an identity cache jump) is dropped.
+ *
+ * LISTENERS: one that throws is counted (per listener) and logged, never rethrown - the poll position
+ * has already moved past the row, so an exception escaping here would lose the rest of the batch.
+ *
+ * LAG: publish → applied here is about half a poll interval on average (+ clock skew between hosts).
+ * No broker to run: any database all instances already share is enough.
+ */
+@Component
+@ConditionalOnProperty(name = "brewpubs.invalidation.bus", havingValue = "database")
+public class DatabasePollingInvalidationBus implements BreweryInvalidationBus, SmartLifecycle {
+
+    private static final int POLL_LIMIT = 500;  // rows per query; a backlog is read in several queries
+    private static final int MAX_GAP = 1_000;   // a bigger jump is an identity cache jump, not in-flight inserts
+
+    private final BreweryInvalidationMapper invalidationMapper;
+    private final String nodeId;
+    private final long pollIntervalMillis;
+    private final long retentionMillis;
+    private final long gapTimeoutMillis;
+    private final List<Subscription> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile long lastSeenId;
+    private final NavigableMap<Long, Long> gaps = new TreeMap<>();  // missing id → first noticed (millis); poller thread only
+    private volatile boolean running;
+    private Thread poller;
+    private long lastCleanupMillis = System.currentTimeMillis();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder pollErrors = new LongAdder();
+    private final LongAdder lateDeliveries = new LongAdder();  // rows that committed after a higher id
+    private final LongAdder gapsDropped = new LongAdder();
+    private final LatencyHistogram lag = new LatencyHistogram();
+
+    public DatabasePollingInvalidationBus(BreweryInvalidationMapper invalidationMapper,
+                                          @Value("${brewpubs.invalidation.node-id:}") String nodeId,
+                                          @Value("${brewpubs.invalidation.poll-interval-ms:200}") long pollIntervalMillis,
+                                          @Value("${brewpubs.invalidation.retention-ms:600000}") long retentionMillis,
+                                          @Value("${brewpubs.invalidation.gap-timeout-ms:10000}") long gapTimeoutMillis) {
+        this.invalidationMapper = invalidationMapper;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.retentionMillis = retentionMillis;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+    }
+
+    @PostConstruct
+    void startFromNewest() {
+        lastSeenId = invalidationMapper.findLastId();
+        System.out.println("✅ Invalidation bus (database) node " + nodeId + " reading after id " + lastSeenId
+                + ", polling every " + pollIntervalMillis + " ms");
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(Integer breweryId) {
+        try {
+            invalidationMapper.insert(new BreweryInvalidation(nodeId, breweryId, System.currentTimeMillis()));
+            published.increment();
+        } catch (RuntimeException e) {
+            // the write itself succeeded; other instances catch up on their next reload
+            System.out.println("⚠️ Invalidation for brewery " + breweryId + " not published: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<BreweryInvalidation> listener) {
+        listeners.add(new Subscription(listener));
+    }
+
+    // ========== POLLER ==========
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                pollOnce();
+                TimeUnit.MILLISECONDS.sleep(pollIntervalMillis);
+            } catch (InterruptedException e) {
+                return;  // stop()
+            } catch (RuntimeException e) {
+                pollErrors.increment();
+                System.out.println("⚠️ Invalidation poll failed: " + e.getMessage());
+                try {
+                    TimeUnit.MILLISECONDS.sleep(pollIntervalMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Read and deliver everything published since the last poll (package-private for tests)
+     */
+    void pollOnce() {
+        long now = System.currentTimeMillis();
+        long readAfter = gaps.isEmpty() ? lastSeenId : gaps.firstKey() - 1;  // re-read from the oldest open gap
+        List<BreweryInvalidation> batch;
+        do {
+            batch = invalidationMapper.findAfter(readAfter, POLL_LIMIT);
+            for (BreweryInvalidation invalidation : batch) {
+                long id = invalidation.getInvalidationId();
+                readAfter = id;
+                if (id <= lastSeenId) {
+                    if (gaps.remove(id) == null) {
+                        continue;  // delivered by an earlier poll
+                    }
+                    lateDeliveries.increment();  // committed after a higher id we already read
+                } else {
+                    if (id - lastSeenId - 1 <= MAX_GAP) {
+                        for (long missing = lastSeenId + 1; missing < id; missing++) {
+                            gaps.put(missing, now);  // taken by an insert that hasn't committed (yet)
+                        }
+                    }
+                    lastSeenId = id;
+                }
+                deliver(invalidation);
+            }
+        } while (batch.size() == POLL_LIMIT);
+
+        // still empty after gap-timeout-ms: rolled back or skipped, it will never show up
+        gaps.values().removeIf(noticed -> {
+            boolean expired = now - noticed > gapTimeoutMillis;
+            if (expired) {
+                gapsDropped.increment();
+            }
+            return expired;
+        });
+
+        if (now - lastCleanupMillis > retentionMillis / 10) {
+            invalidationMapper.deleteOlderThan(now - retentionMillis);
+            lastCleanupMillis = now;
+        }
+    }
+
+    private void deliver(BreweryInvalidation invalidation) {
+        if (nodeId.equals(invalidation.getOriginNode())) {
+            return;  // our own write
+        }
+        received.increment();
+        for (Subscription subscription : listeners) {
+            try {
+                subscription.listener.accept(invalidation);
+            } catch (RuntimeException e) {
+                subscription.errors.increment();
+                System.out.println("⚠️ Invalidation listener on node " + nodeId + " failed for " + invalidation
+                        + ": " + e);
+            }
+        }
+        long lagMillis = System.currentTimeMillis() - invalidation.getPublishedAt();
+        lag.record(TimeUnit.MILLISECONDS.toNanos(Math.max(0, lagMillis)));
+    }
+
+    // ========== LIFECYCLE ==========
+
+    @Override
+    public void start() {
+        running = true;
+        poller = new Thread(this::pollLoop, "brewery-invalidation-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        poller.interrupt();
+        try {
+            poller.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ========== STATS ==========
+
+    @Override
+    public long getPublished() {
+        return published.sum();
+    }
+
+    @Override
+    public long getReceived() {
+        return received.sum();
+    }
+
+    @Override
+    public LatencyHistogram getLag() {
+        return lag;
+    }
+
+    public long getPollErrors() {
+        return pollErrors.sum();
+    }
+
+    public long getLastSeenId() {
+        return lastSeenId;
+    }
+
+    public long getLateDeliveries() {
+        return lateDeliveries.sum();
+    }
+
+    public long getGapsDropped() {
+        return gapsDropped.sum();
+    }
+
+    /**
+     * @return How many deliveries each listener threw on, in subscription order
+     */
+    public List<Long> getListenerErrors() {
+        return listeners.stream().map(subscription -> subscription.errors.sum()).toList();
+    }
+
+    private static final class Subscription {
+        final Consumer<BreweryInvalidation> listener;
+        final LongAdder errors = new LongAdder();
+
+        Subscription(Consumer<BreweryInvalidation> listener) {
+            this.listener = listener;
+        }
+    }
+}
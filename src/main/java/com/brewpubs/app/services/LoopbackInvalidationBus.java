@@ -0,0 +1,136 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 1/16/26 @ 10:20 AM.
+ */
+
+import com.brewpubs.app.metrics.LatencyHistogram;
+import com.brewpubs.app.models.BreweryInvalidation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * IN-PROCESS invalidation bus (default: brewpubs.invalidation.bus=loopback)
+ *
+ * All buses in this JVM with the same channel name are connected: publish() hands the message straight
+ * to every OTHER bus on the channel (on the publishing thread). One application → nobody to tell → free.
+ * The channel defaults to the datasource URL: contexts that share a database are the ones that must agree.
+ * Several application contexts in one JVM (tests, local experiments) → they stay coherent without a
+ * shared database. For separate processes use the database bus.
+ *
+ * A listener that throws is counted (per listener) and logged, never rethrown: the publisher's write
+ * is already committed, and one broken subscriber must not fail it or starve the others.
+ */
+@Component
+@ConditionalOnProperty(name = "brewpubs.invalidation.bus", havingValue = "loopback", matchIfMissing = true)
+public class LoopbackInvalidationBus implements BreweryInvalidationBus {
+
+    // channel name → buses on it (static: shared by every application context in this JVM)
+    private static final Map<String, List<LoopbackInvalidationBus>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final String nodeId;
+    private final String channel;
+    private final List<Subscription> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LatencyHistogram lag = new LatencyHistogram();
+
+    public LoopbackInvalidationBus(@Value("${brewpubs.invalidation.node-id:}") String nodeId,
+                                   @Value("${brewpubs.invalidation.channel:${spring.datasource.url}}") String channel) {
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.channel = channel;
+    }
+
+    // joins the channel once fully constructed (publishing 'this' from the constructor would let
+    // another context's thread call deliver() on a half-built bus)
+    @PostConstruct
+    void join() {
+        CHANNELS.computeIfAbsent(channel, name -> new CopyOnWriteArrayList<>()).add(this);
+    }
+
+    @PreDestroy
+    void leave() {
+        CHANNELS.getOrDefault(channel, List.of()).remove(this);
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(Integer breweryId) {
+        BreweryInvalidation invalidation = new BreweryInvalidation(nodeId, breweryId, System.currentTimeMillis());
+        long publishedNanos = System.nanoTime();  // same JVM → same clock, finer than publishedAt
+        published.increment();
+        for (LoopbackInvalidationBus bus : CHANNELS.getOrDefault(channel, List.of())) {
+            if (bus != this) {
+                bus.deliver(invalidation, publishedNanos);
+            }
+        }
+    }
+
+    private void deliver(BreweryInvalidation invalidation, long publishedNanos) {
+        received.increment();
+        for (Subscription subscription : listeners) {
+            try {
+                subscription.listener.accept(invalidation);
+            } catch (RuntimeException e) {
+                subscription.errors.increment();
+                System.out.println("⚠️ Invalidation listener on node " + nodeId + " failed for " + invalidation
+                        + ": " + e);
+            }
+        }
+        lag.record(System.nanoTime() - publishedNanos);
+    }
+
+    @Override
+    public void subscribe(Consumer<BreweryInvalidation> listener) {
+        listeners.add(new Subscription(listener));
+    }
+
+    // ========== STATS ==========
+
+    @Override
+    public long getPublished() {
+        return published.sum();
+    }
+
+    @Override
+    public long getReceived() {
+        return received.sum();
+    }
+
+    @Override
+    public LatencyHistogram getLag() {
+        return lag;
+    }
+
+    /**
+     * @return How many deliveries each listener threw on, in subscription order
+     */
+    public List<Long> getListenerErrors() {
+        return listeners.stream().map(subscription -> subscription.errors.sum()).toList();
+    }
+
+    private static final class Subscription {
+        final Consumer<BreweryInvalidation> listener;
+        final LongAdder errors = new LongAdder();
+
+        Subscription(Consumer<BreweryInvalidation> listener) {
+            this.listener = listener;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 1/20/26 @ 9:45 AM.
+ */
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * StripedTokenBucketLimiter - one token bucket per key (e.g. client address), built for MANY keys and MANY threads
+ *
+ * TOKEN BUCKET: every key starts with `capacity` tokens (the burst it may send at once); each request
+ * takes one; tokens come back at `tokensPerSecond` up to capacity. No token → rejected, and we know
+ * exactly when the next one arrives (→ Retry-After).
+ *
+ * LOCK STRIPING: keys are spread over `stripes` independent maps, each with its own lock.
+ * Two requests only wait for each other when their keys land in the same stripe, and the critical
+ * section is a map lookup plus a few arithmetic operations → scales with cores instead of
+ * serializing every request on one lock (see RegistrationRateLimiterBenchmark).
+ *
+ * IDLE EVICTION (memory stays bounded with millions of distinct keys):
+ * - a bucket untouched for capacity / tokensPerSecond seconds is full again, i.e. exactly like a
+ *   brand-new bucket → it can be dropped without changing any decision
+ * - each stripe is an ACCESS-ORDERED LinkedHashMap (least recently used first), so idle buckets are
+ *   always at the front: every call removes the idle ones from the front and stops at the first active one
+ *   (amortized O(1), no background thread, no full scans)
+ * - hard cap per stripe: beyond maxKeys / stripes the least recently used bucket is dropped early
+ *   (that key just gets a fresh bucket next time)
+ */
+public class StripedTokenBucketLimiter {
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long idleNanos;    // time to refill from empty to full
+    private final LongSupplier clock;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public StripedTokenBucketLimiter(int capacity, double tokensPerSecond, int stripes, int maxKeys) {
+        this(capacity, tokensPerSecond, stripes, maxKeys, System::nanoTime);
+    }
+
+    StripedTokenBucketLimiter(int capacity, double tokensPerSecond, int stripes, int maxKeys, LongSupplier clock) {
+        if (capacity < 1 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity must be >= 1 and tokensPerSecond > 0");
+        }
+        int stripeCount = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;  // next power of two
+        this.stripes = new Stripe[stripeCount];
+        int maxKeysPerStripe = Math.max(1, maxKeys / stripeCount);
+        this.mask = stripeCount - 1;
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1e9;
+        this.idleNanos = (long) Math.ceil(capacity / tokensPerNano);
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(maxKeysPerStripe, idleNanos, evictions);
+        }
+        this.clock = clock;
+    }
+
+    /**
+     * Take one token for this key
+     * @return 0 if admitted; otherwise how many nanoseconds until the next token (> 0)
+     */
+    public long tryAcquire(String key) {
+        int hash = key.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & mask];
+        synchronized (stripe) {
+            // read the clock under the lock: a thread that read it earlier but got the lock later would
+            // otherwise see a negative elapsed time (and take tokens away / move updatedNanos backwards)
+            long now = clock.getAsLong();
+            stripe.evictIdle(now);
+            Bucket bucket = stripe.get(key);  // access order: moves it to the back
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.put(key, bucket);
+            } else {
+                long elapsed = Math.max(0, now - bucket.updatedNanos);  // nanoTime may differ slightly across cores
+                bucket.tokens = Math.min(capacity, bucket.tokens + elapsed * tokensPerNano);
+                bucket.updatedNanos += elapsed;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                admitted.increment();
+                return 0;
+            }
+            rejected.increment();
+            return Math.max(1, (long) Math.ceil((1 - bucket.tokens) / tokensPerNano));
+        }
+    }
+
+    // ========== STATS ==========
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Keys currently holding a bucket (each stripe counted under its own lock, so only roughly "now")
+     */
+    public long getTrackedKeys() {
+        long keys = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                keys += stripe.size();
+            }
+        }
+        return keys;
+    }
+
+    // ========== INTERNALS ==========
+
+    private static final class Bucket {
+        double tokens;
+        long updatedNanos;  // last refill = last access
+
+        Bucket(double tokens, long updatedNanos) {
+            this.tokens = tokens;
+            this.updatedNanos = updatedNanos;
+        }
+    }
+
+    /**
+     * One stripe: least recently used bucket first; all access under synchronized (stripe)
+     */
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxKeys;
+        private final long idleNanos;
+        private final LongAdder evictions;  // the limiter's counter, shared by all stripes
+
+        Stripe(int maxKeys, long idleNanos, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.maxKeys = maxKeys;
+            this.idleNanos = idleNanos;
+            this.evictions = evictions;
+        }
+
+        void evictIdle(long now) {
+            Iterator<Bucket> oldestFirst = values().iterator();
+            while (oldestFirst.hasNext()) {
+                if (now - oldestFirst.next().updatedNanos < idleNanos) {
+                    return;  // everything behind it was used even more recently
+                }
+                oldestFirst.remove();
+                evictions.increment();
+            }
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            if (size() > maxKeys) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 1/22/26 @ 10:30 AM.
+ */
+
+import com.brewpubs.app.mappers.UserMapper;
+import com.brewpubs.app.models.ImportReport;
+import com.brewpubs.app.models.User;
+import com.brewpubs.app.models.UserImportReport;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * BULK USER REGISTRATION (partner attendee lists)
+ * Streams a CSV or NDJSON file of users into USERS: validation in parallel, writes in JDBC batches
+ *
+ * PIPELINE (memory stays flat: at most 2 × parallelism chunks are in flight):
+ * 1. READ      request thread reads chunkSize lines at a time (BufferedReader, never the whole file)
+ * 2. VALIDATE  each chunk goes to a ForkJoinPool worker: parse the line, run the SAME Jakarta constraints
+ *              as the registration form (@NotBlank, @Email, @Size on User), normalize the email
+ *              → CPU-bound, so it spreads over all cores (parallelism = cores by default)
+ * 3. WRITE     request thread takes the chunks back IN FILE ORDER and, per user:
+ *              - reserve username/email in UserWriteBehindQueue (catches duplicates inside the file
+ *                and races with POST /register, exactly like a single registration)
+ *              - Bloom-filter-backed "taken?" checks from UserService
+ *              - queue the INSERT (MyBatis BATCH executor); every batchSize users → ONE executeBatch + commit
+ *
+ * Bad rows never stop the import: each one is reported with its line number and reason.
+ * If the database rejects a batch (e.g. a name registered through another instance a moment ago),
+ * that batch is rolled back and retried row by row, so only the offending rows fail.
+ *
+ * WHY NOT THE WRITE-BEHIND QUEUE? It is sized for interactive sign-ups; thousands of bulk rows
+ * would fill it and turn POST /register into "busy". Bulk rows get their own batches instead.
+ */
+@Service
+public class UserImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private final SqlSessionFactory sqlSessionFactory;
+    private final UserService userService;
+    private final UserWriteBehindQueue reservations;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool validationPool;
+    private final int chunkSize;
+    private final int batchSize;
+
+    public UserImportService(SqlSessionFactory sqlSessionFactory,
+                             UserService userService,
+                             UserWriteBehindQueue reservations,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             @Value("${brewpubs.users.import.parallelism:0}") int parallelism,
+                             @Value("${brewpubs.users.import.chunk-size:1000}") int chunkSize,
+                             @Value("${brewpubs.users.import.batch-size:1000}") int batchSize) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.userService = userService;
+        this.reservations = reservations;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.validationPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = Math.max(1, chunkSize);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        validationPool.shutdownNow();
+    }
+
+    /**
+     * Register every user in the stream
+     * @param in CSV (header row required, with 'username' and 'email' columns) or NDJSON ({"username":..,"email":..})
+     * @param format How to parse each line
+     * @return Counts, per-line errors, rows/sec and how the validation stage ran
+     */
+    public UserImportReport importUsers(InputStream in, Format format) throws IOException {
+        UserImportReport report = new UserImportReport();
+        report.setParallelism(validationPool.getParallelism());
+        long startNanos = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+            Batch batch = new Batch(session);
+            try {
+                readValidateWrite(reader, format, batch, report, inFlight);
+                batch.flush(report);
+            } finally {
+                batch.abandon();  // failed midway: un-reserve rows that were never committed (no-op otherwise)
+            }
+        } finally {
+            inFlight.forEach(chunk -> chunk.cancel(true));  // only non-empty if reading/writing failed
+            report.setElapsedMillis((System.nanoTime() - startNanos) / 1_000_000);
+            System.out.println("✅ User import finished: " + report);
+        }
+        return report;
+    }
+
+    // ========== STAGE 1: READ (request thread) ==========
+
+    private void readValidateWrite(BufferedReader reader, Format format, Batch batch, UserImportReport report,
+                                   Deque<Future<Chunk>> inFlight) throws IOException {
+        int maxInFlight = 2 * validationPool.getParallelism();  // enough to keep every worker busy
+        long lineNumber = 0;
+
+        Map<String, Integer> csvColumns = null;
+        if (format == Format.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null) {
+                return;  // empty file
+            }
+            csvColumns = parseHeader(header);
+        }
+
+        List<String> lines = new ArrayList<>(chunkSize);
+        long firstLine = lineNumber + 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            lines.add(line);
+            if (lines.size() == chunkSize) {
+                inFlight.add(submit(lines, firstLine, format, csvColumns));
+                lines = new ArrayList<>(chunkSize);
+                firstLine = lineNumber + 1;
+                while (inFlight.size() >= maxInFlight) {
+                    write(await(inFlight.poll()), batch, report);  // oldest first → file order
+                }
+            }
+        }
+        if (!lines.isEmpty()) {
+            inFlight.add(submit(lines, firstLine, format, csvColumns));
+        }
+        while (!inFlight.isEmpty()) {
+            write(await(inFlight.poll()), batch, report);
+        }
+    }
+
+    // ========== STAGE 2: VALIDATE (ForkJoinPool workers) ==========
+
+    private Future<Chunk> submit(List<String> lines, long firstLine, Format format, Map<String, Integer> csvColumns) {
+        return validationPool.submit(() -> validate(lines, firstLine, format, csvColumns));
+    }
+
+    private Chunk validate(List<String> lines, long firstLine, Format format, Map<String, Integer> csvColumns) {
+        long startNanos = System.nanoTime();
+        Chunk chunk = new Chunk();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            long lineNumber = firstLine + i;
+            chunk.rowsRead++;
+            try {
+                User user = (format == Format.CSV) ? fromCsv(line, csvColumns) : fromJson(line);
+                Set<ConstraintViolation<User>> violations = validator.validate(user);
+                if (!violations.isEmpty()) {
+                    chunk.errors.add(new ImportReport.RowError(lineNumber, describe(violations)));
+                    continue;
+                }
+                user.setEmail(UserService.normalizeEmail(user.getEmail()));
+                chunk.users.add(user);
+                chunk.userLines.add(lineNumber);
+            } catch (IllegalArgumentException e) {
+                chunk.errors.add(new ImportReport.RowError(lineNumber, e.getMessage()));
+            }
+        }
+        chunk.cpuNanos = System.nanoTime() - startNanos;
+        return chunk;
+    }
+
+    // "email: Email must be valid; username: Username is required" (sorted → same text every time)
+    private static String describe(Set<ConstraintViolation<User>> violations) {
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
+    private static Chunk await(Future<Chunk> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("User import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("User validation failed", e.getCause());
+        }
+    }
+
+    /**
+     * One chunk of lines after validation (built by one worker, read by the request thread after get())
+     */
+    private static final class Chunk {
+        int rowsRead;
+        long cpuNanos;
+        final List<User> users = new ArrayList<>();
+        final List<Long> userLines = new ArrayList<>();
+        final List<ImportReport.RowError> errors = new ArrayList<>();
+    }
+
+    // ========== STAGE 3: WRITE (request thread, file order) ==========
+
+    private void write(Chunk chunk, Batch batch, UserImportReport report) {
+        report.chunkValidated(chunk.cpuNanos);
+        for (int i = 0; i < chunk.rowsRead; i++) {
+            report.rowRead();
+        }
+        // errors and users interleave by line number → report in line order
+        int error = 0;
+        for (int i = 0; i < chunk.users.size(); i++) {
+            long lineNumber = chunk.userLines.get(i);
+            while (error < chunk.errors.size() && chunk.errors.get(error).getLine() < lineNumber) {
+                ImportReport.RowError rowError = chunk.errors.get(error++);
+                report.rowInvalid(rowError.getLine(), rowError.getMessage());
+            }
+            register(chunk.users.get(i), lineNumber, batch, report);
+        }
+        while (error < chunk.errors.size()) {
+            ImportReport.RowError rowError = chunk.errors.get(error++);
+            report.rowInvalid(rowError.getLine(), rowError.getMessage());
+        }
+    }
+
+    private void register(User user, long lineNumber, Batch batch, UserImportReport report) {
+        // same order as UserService.register: reserve first, then ask the filters/database
+        UserService.RegistrationResult reservation = reservations.reserve(user);
+        if (reservation != UserService.RegistrationResult.REGISTERED) {
+            report.rowInvalid(lineNumber, message(reservation));
+            return;
+        }
+        if (userService.isUsernameTaken(user.getUsername())) {
+            reservations.release(user);
+            report.rowInvalid(lineNumber, message(UserService.RegistrationResult.USERNAME_TAKEN));
+            return;
+        }
+        if (userService.isEmailTaken(user.getEmail())) {
+            reservations.release(user);
+            report.rowInvalid(lineNumber, message(UserService.RegistrationResult.EMAIL_TAKEN));
+            return;
+        }
+        batch.add(user, lineNumber);
+        if (batch.users.size() == batchSize) {
+            batch.flush(report);
+        }
+    }
+
+    private static String message(UserService.RegistrationResult result) {
+        return result == UserService.RegistrationResult.USERNAME_TAKEN
+                ? "Username is already taken" : "An account with this email already exists";
+    }
+
+    /**
+     * Users queued in the BATCH session since the last commit (reserved until they are committed)
+     */
+    private final class Batch {
+        final SqlSession session;
+        final UserMapper mapper;
+        final List<User> users = new ArrayList<>();
+        final List<Long> lines = new ArrayList<>();
+
+        Batch(SqlSession session) {
+            this.session = session;
+            this.mapper = session.getMapper(UserMapper.class);
+        }
+
+        void add(User user, long lineNumber) {
+            mapper.insertQueued(user);  // queued, not sent yet
+            users.add(user);
+            lines.add(lineNumber);
+        }
+
+        void flush(UserImportReport report) {
+            if (users.isEmpty()) {
+                return;
+            }
+            try {
+                session.flushStatements();  // ONE executeBatch() round trip
+                session.commit(true);
+                report.batchExecuted();
+                report.rowsImported(users.size());
+                users.forEach(userService::markRegistered);
+            } catch (PersistenceException e) {
+                session.rollback(true);
+                writeOneByOne(report);
+            } finally {
+                abandon();
+            }
+        }
+
+        // forget the queued rows (after a commit, or because the import failed) and un-reserve their names
+        void abandon() {
+            users.forEach(reservations::release);
+            users.clear();
+            lines.clear();
+        }
+
+        // A batch the database refused: save the good rows, report the others
+        private void writeOneByOne(UserImportReport report) {
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                try (SqlSession single = sqlSessionFactory.openSession(true)) {
+                    single.getMapper(UserMapper.class).insertQueued(user);
+                    report.rowsImported(1);
+                    userService.markRegistered(user);
+                } catch (RuntimeException e) {
+                    report.rowInvalid(lines.get(i), rootMessage(e));
+                }
+            }
+        }
+    }
+
+    // ========== PARSING ==========
+
+    private static Map<String, Integer> parseHeader(String header) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = CsvLineParser.parse(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", ""), i);
+        }
+        if (!columns.containsKey("username") || !columns.containsKey("email")) {
+            throw new IllegalArgumentException("CSV header must contain 'username' and 'email' columns");
+        }
+        return columns;
+    }
+
+    private static User fromCsv(String line, Map<String, Integer> columns) {
+        List<String> fields = CsvLineParser.parse(line);
+        return new User(field(fields, columns.get("username")), field(fields, columns.get("email")));
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    private User fromJson(String line) {
+        try {
+            User user = objectMapper.readValue(line, User.class);
+            if (user == null) {  // the line is the JSON literal null
+                throw new IllegalArgumentException("Expected a JSON object, got null");
+            }
+            user.setUserId(null);  // ids are always assigned by the database
+            return user;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
@@ -0,0 +1,175 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 1/5/26 @ 11:40 AM.
+ */
+
+import com.brewpubs.app.mappers.UserMapper;
+import com.brewpubs.app.models.User;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SERVICE LAYER
+ * Business logic for user registration
+ *
+ * ARCHITECTURE:
+ * RegistrationController → UserService → UserMapper → USERS table
+ *
+ * DUPLICATE CHECK WITH BLOOM FILTERS:
+ * "Is this username taken?" is asked on every registration, and almost always the answer is NO.
+ * - Bloom filter says "definitely not seen" → answer NO without touching the database
+ * - Bloom filter says "maybe"              → confirm with an index lookup (COUNT ... WHERE username = ?)
+ * The filters are rebuilt from USERS at startup and updated on every insert.
+ * The unique indexes stay the final authority.
+ *
+ * WRITE-BEHIND: register() does not INSERT itself. After the checks the user goes into
+ * UserWriteBehindQueue, which saves registrations in groups (one batch + one commit per group).
+ * Names waiting in the queue are reserved there, so they already count as taken.
+ */
+@Service
+public class UserService {
+
+    /**
+     * What happened to a registration attempt
+     */
+    public enum RegistrationResult { REGISTERED, USERNAME_TAKEN, EMAIL_TAKEN, BUSY }
+
+    private final UserMapper userMapper;
+    private final UserWriteBehindQueue writeQueue;
+    private final BloomFilter usernameFilter;
+    private final BloomFilter emailFilter;
+
+    // How often the Bloom filter saved a query (for diagnostics/metrics)
+    private final LongAdder filterNegatives = new LongAdder();   // answered without the database
+    private final LongAdder databaseChecks = new LongAdder();    // "maybe" → asked the database
+    private final LongAdder falsePositives = new LongAdder();    // database said it was free after all
+
+    public UserService(UserMapper userMapper,
+                       UserWriteBehindQueue writeQueue,
+                       @Value("${brewpubs.users.bloom.expected-users:1000000}") long expectedUsers,
+                       @Value("${brewpubs.users.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userMapper = userMapper;
+        this.writeQueue = writeQueue;
+        this.usernameFilter = new BloomFilter(expectedUsers, falsePositiveRate);
+        this.emailFilter = new BloomFilter(expectedUsers, falsePositiveRate);
+    }
+
+    // Runs once at startup: stream every username/email into the filters (no List in memory)
+    @PostConstruct
+    void rebuildFilters() {
+        usernameFilter.clear();
+        emailFilter.clear();
+        long[] users = {0};
+        userMapper.scanUsernamesAndEmails(context -> {
+            User user = context.getResultObject();
+            usernameFilter.add(user.getUsername());
+            emailFilter.add(user.getEmail());
+            users[0]++;
+        });
+        System.out.println("✅ UserService Bloom filters built from " + users[0] + " users ("
+                + usernameFilter.getBitCount() / 8 / 1024 + " KB each, " + usernameFilter.getHashCount() + " hashes)");
+    }
+
+    // ========== DUPLICATE CHECKS ==========
+
+    public boolean isUsernameTaken(String username) {
+        if (!usernameFilter.mightContain(username)) {
+            filterNegatives.increment();
+            return false;
+        }
+        databaseChecks.increment();
+        boolean taken = userMapper.countByUsername(username) > 0;
+        if (!taken) {
+            falsePositives.increment();
+        }
+        return taken;
+    }
+
+    public boolean isEmailTaken(String email) {
+        String normalized = normalizeEmail(email);
+        if (!emailFilter.mightContain(normalized)) {
+            filterNegatives.increment();
+            return false;
+        }
+        databaseChecks.increment();
+        boolean taken = userMapper.countByEmail(normalized) > 0;
+        if (!taken) {
+            falsePositives.increment();
+        }
+        return taken;
+    }
+
+    // ========== CREATE OPERATIONS ==========
+
+    /**
+     * Accept a (validated) user unless the username or email is already taken
+     * The row is written shortly afterwards by UserWriteBehindQueue (so no userId yet)
+     * BUSY → the queue stayed full; nothing was saved, the user should try again
+     */
+    public RegistrationResult register(User user) {
+        user.setEmail(normalizeEmail(user.getEmail()));
+
+        // Reserve FIRST, then check the database: a name committed (and un-reserved) by the writer
+        // in between is then still seen by the database check
+        RegistrationResult reservation = writeQueue.reserve(user);
+        if (reservation != RegistrationResult.REGISTERED) {
+            return reservation;
+        }
+        boolean accepted = false;
+        try {
+            if (isUsernameTaken(user.getUsername())) {
+                return RegistrationResult.USERNAME_TAKEN;
+            }
+            if (isEmailTaken(user.getEmail())) {
+                return RegistrationResult.EMAIL_TAKEN;
+            }
+            // Filters BEFORE enqueue: the writer may commit and un-reserve the user right away, and from
+            // then on only the filters + database stop a second registration with the same name.
+            // (If the queue turns out to be full the bits stay set - a Bloom filter can't forget - which
+            // only costs a later registration of this name one extra index lookup.)
+            usernameFilter.add(user.getUsername());
+            emailFilter.add(user.getEmail());
+            if (!writeQueue.enqueue(user)) {
+                return RegistrationResult.BUSY;
+            }
+            accepted = true;
+            return RegistrationResult.REGISTERED;
+        } finally {
+            if (!accepted) {
+                writeQueue.release(user);  // the writer releases accepted users after their commit
+            }
+        }
+    }
+
+    /**
+     * A user saved by another path (e.g. the bulk import) → later registrations must see the names as taken
+     */
+    public void markRegistered(User user) {
+        usernameFilter.add(user.getUsername());
+        emailFilter.add(user.getEmail());
+    }
+
+    // ========== STATISTICS ==========
+
+    public long getFilterNegatives() {
+        return filterNegatives.sum();
+    }
+
+    public long getDatabaseChecks() {
+        return databaseChecks.sum();
+    }
+
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    // Emails are case-insensitive in practice: store and compare them lowercase
+    static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
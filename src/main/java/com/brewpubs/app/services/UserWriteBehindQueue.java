@@ -0,0 +1,268 @@
+package com.brewpubs.app.services;
+
+/**
+ * Created by Rajiv Shankar on 1/7/26 @ 9:15 AM.
+ */
+
+import com.brewpubs.app.mappers.UserMapper;
+import com.brewpubs.app.models.User;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * WRITE-BEHIND QUEUE for registrations (group commit)
+ *
+ * BEFORE: POST /register waits for its own INSERT + COMMIT
+ * AFTER:  POST /register only puts the user in a bounded in-memory queue (microseconds);
+ *         ONE writer thread saves queued users in groups: up to maxBatch users, or whatever
+ *         arrived within maxWait, in ONE JDBC batch and ONE commit
+ *
+ * BACK-PRESSURE: the queue has a fixed capacity. When it is full, enqueue() waits up to
+ * offerTimeout for space and then gives up → the controller answers "busy, try again".
+ *
+ * DUPLICATES: usernames/emails are RESERVED while they sit in the queue, so a second registration
+ * for the same name can't slip in before the first one reaches the database.
+ *
+ * SHUTDOWN: stop() lets the writer drain everything still queued before the database closes.
+ *
+ * PHASE: started BEFORE the web server accepts requests and stopped AFTER it has stopped (incl. graceful
+ * shutdown), so no POST /register is ever answered "busy" at startup or accepted after the final drain.
+ */
+@Component
+public class UserWriteBehindQueue implements SmartLifecycle {
+
+    private final SqlSessionFactory sqlSessionFactory;
+    private final BlockingQueue<User> queue;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final long offerTimeoutMillis;
+
+    // Reserved while queued (removed once committed)
+    private final Set<String> pendingUsernames = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingEmails = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    // Metrics
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();      // queue full
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();        // rows the database refused
+    private final LongAdder batches = new LongAdder();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong maxBatchSizeSeen = new AtomicLong();
+
+    public UserWriteBehindQueue(SqlSessionFactory sqlSessionFactory,
+                                @Value("${brewpubs.users.write-behind.capacity:10000}") int capacity,
+                                @Value("${brewpubs.users.write-behind.max-batch:200}") int maxBatch,
+                                @Value("${brewpubs.users.write-behind.max-wait-ms:20}") long maxWaitMillis,
+                                @Value("${brewpubs.users.write-behind.offer-timeout-ms:100}") long offerTimeoutMillis) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+    }
+
+    // ========== PRODUCER SIDE (request threads) ==========
+
+    /**
+     * Reserve the user's username and email while they are queued
+     * @return REGISTERED if both were free in the queue, otherwise which one is already pending
+     */
+    public UserService.RegistrationResult reserve(User user) {
+        if (!pendingUsernames.add(user.getUsername())) {
+            return UserService.RegistrationResult.USERNAME_TAKEN;
+        }
+        if (!pendingEmails.add(user.getEmail())) {
+            pendingUsernames.remove(user.getUsername());
+            return UserService.RegistrationResult.EMAIL_TAKEN;
+        }
+        return UserService.RegistrationResult.REGISTERED;
+    }
+
+    public void release(User user) {
+        pendingUsernames.remove(user.getUsername());
+        pendingEmails.remove(user.getEmail());
+    }
+
+    /**
+     * Queue a reserved user for saving
+     * @return false if the queue stayed full for offerTimeout (or we are shutting down)
+     */
+    public boolean enqueue(User user) {
+        if (!running) {
+            rejected.increment();
+            return false;
+        }
+        try {
+            if (queue.offer(user, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                enqueued.increment();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    // ========== CONSUMER SIDE (one writer thread) ==========
+
+    private void drainLoop() {
+        List<User> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                User first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Group commit: keep collecting until maxBatch users or maxWait elapsed
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());  // whatever is already waiting
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || remaining <= 0) {
+                        break;
+                    }
+                    User next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts only to wake us up; keep draining until the queue is empty
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<User> batch) {
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            for (User user : batch) {
+                mapper.insertQueued(user);
+            }
+            session.commit(true);  // ONE executeBatch + ONE commit for the whole group
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            // One bad row fails the whole batch → retry row by row so the good ones are still saved
+            writeOneByOne(batch);
+        } finally {
+            batches.increment();
+            lastBatchSize.set(batch.size());
+            maxBatchSizeSeen.accumulateAndGet(batch.size(), Math::max);
+            batch.forEach(this::release);
+        }
+    }
+
+    private void writeOneByOne(List<User> batch) {
+        for (User user : batch) {
+            try (SqlSession session = sqlSessionFactory.openSession(true)) {
+                session.getMapper(UserMapper.class).insertQueued(user);
+                written.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                System.out.println("❌ Queued registration could not be saved: " + user + " (" + e.getMessage() + ")");
+            }
+        }
+    }
+
+    // ========== LIFECYCLE ==========
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "user-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;              // no new users; writer drains what is left, then exits
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("✅ Registration queue flushed on shutdown (" + queue.size() + " left unsaved)");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // lower phase = started earlier, stopped later; the web server starts 1024 below graceful shutdown
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    // ========== METRICS ==========
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public long getEnqueued() {
+        return enqueued.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getLastBatchSize() {
+        return lastBatchSize.get();
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSizeSeen.get();
+    }
+
+    public double getAverageBatchSize() {
+        long count = batches.sum();
+        return count == 0 ? 0.0 : (double) (written.sum() + failed.sum()) / count;
+    }
+}
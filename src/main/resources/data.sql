@@ -2,10 +2,10 @@
 -- INITIAL BREWERY DATA
 -- ==============================================
 
-INSERT INTO BREWERIES (name, address, signature_beer) VALUES
-          ('Allagash Brewing Company', '50 Industrial Way, Portland, ME', 'Allagash White'),
-          ('Bissell Brothers Brewing', '38 Resurgam Pl, Portland, ME', 'The Substance (Double IPA)'),
-          ('Foundation Brewing Company', '1 Industrial Way, Portland, ME', 'Epiphany (IPA)'),
-          ('Austin Street Brewery', '391 Congress St, Portland, ME', 'Neverender (Double IPA)'),
-          ('Rising Tide Brewing Company', '103 Fox St, Portland, ME', 'Daymark (Pale Ale)'),
-          ('Mast Landing Brewing Company', '200 Lower Main St, Freeport, ME', 'Pantless Thunder Goose (Imperial IPA)');
+INSERT INTO BREWERIES (name, address, signature_beer, latitude, longitude) VALUES
+          ('Allagash Brewing Company', '50 Industrial Way, Portland, ME', 'Allagash White', 43.7040, -70.3160),
+          ('Bissell Brothers Brewing', '38 Resurgam Pl, Portland, ME', 'The Substance (Double IPA)', 43.6513, -70.2775),
+          ('Foundation Brewing Company', '1 Industrial Way, Portland, ME', 'Epiphany (IPA)', 43.7035, -70.3172),
+          ('Austin Street Brewery', '391 Congress St, Portland, ME', 'Neverender (Double IPA)', 43.6571, -70.2637),
+          ('Rising Tide Brewing Company', '103 Fox St, Portland, ME', 'Daymark (Pale Ale)', 43.6647, -70.2555),
+          ('Mast Landing Brewing Company', '200 Lower Main St, Freeport, ME', 'Pantless Thunder Goose (Imperial IPA)', 43.8570, -70.1030);
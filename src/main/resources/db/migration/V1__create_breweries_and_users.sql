@@ -0,0 +1,25 @@
+-- ==============================================
+-- V1: BREWERIES and USERS tables
+-- Same tables as schema.sql (in-memory mode), but NEVER dropped:
+-- this script runs once per database file, recorded in SCHEMA_HISTORY
+-- IF NOT EXISTS: also adopts a file database created earlier from schema.sql
+-- ==============================================
+
+CREATE TABLE IF NOT EXISTS BREWERIES (
+                           brewery_id INT PRIMARY KEY AUTO_INCREMENT,
+                           name VARCHAR(100) NOT NULL,
+                           address VARCHAR(200) NOT NULL,
+                           signature_beer VARCHAR(100),
+                           latitude DOUBLE,           -- WGS84 degrees (NULL = location unknown)
+                           longitude DOUBLE
+);
+
+CREATE TABLE IF NOT EXISTS USERS (
+                       user_id INT PRIMARY KEY AUTO_INCREMENT,
+                       username VARCHAR(50) NOT NULL,
+                       email VARCHAR(100) NOT NULL,          -- stored lowercase
+                       created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_username ON USERS (username);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_email ON USERS (email);
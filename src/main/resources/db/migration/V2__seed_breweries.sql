@@ -0,0 +1,16 @@
+-- ==============================================
+-- V2: initial brewery data (same rows as data.sql)
+-- Runs once: restarts keep whatever the catalog holds by then
+-- Skipped if the table already has rows (database adopted from schema.sql/data.sql)
+-- ==============================================
+
+INSERT INTO BREWERIES (name, address, signature_beer, latitude, longitude)
+SELECT * FROM (VALUES
+          ('Allagash Brewing Company', '50 Industrial Way, Portland, ME', 'Allagash White', 43.7040, -70.3160),
+          ('Bissell Brothers Brewing', '38 Resurgam Pl, Portland, ME', 'The Substance (Double IPA)', 43.6513, -70.2775),
+          ('Foundation Brewing Company', '1 Industrial Way, Portland, ME', 'Epiphany (IPA)', 43.7035, -70.3172),
+          ('Austin Street Brewery', '391 Congress St, Portland, ME', 'Neverender (Double IPA)', 43.6571, -70.2637),
+          ('Rising Tide Brewing Company', '103 Fox St, Portland, ME', 'Daymark (Pale Ale)', 43.6647, -70.2555),
+          ('Mast Landing Brewing Company', '200 Lower Main St, Freeport, ME', 'Pantless Thunder Goose (Imperial IPA)', 43.8570, -70.1030)
+) AS seed
+WHERE NOT EXISTS (SELECT 1 FROM BREWERIES);
@@ -0,0 +1,7 @@
+-- ==============================================
+-- V3: version column for optimistic-concurrency updates
+-- UPDATE ... SET version = version + 1 WHERE brewery_id = ? AND version = ?
+-- Existing rows start at version 0
+-- ==============================================
+
+ALTER TABLE BREWERIES ADD COLUMN IF NOT EXISTS version INT DEFAULT 0 NOT NULL;
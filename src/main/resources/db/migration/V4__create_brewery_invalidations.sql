@@ -0,0 +1,12 @@
+-- ==============================================
+-- V4: BREWERY_INVALIDATIONS table for the database-polling invalidation bus
+-- (brewpubs.invalidation.bus=database, see DatabasePollingInvalidationBus)
+-- Same table as schema.sql
+-- ==============================================
+
+CREATE TABLE IF NOT EXISTS BREWERY_INVALIDATIONS (
+                       invalidation_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+                       origin_node VARCHAR(64) NOT NULL,     -- instance that made the write (skips its own rows)
+                       brewery_id INT,                       -- NULL = everything (bulk import → full reload)
+                       published_at BIGINT NOT NULL          -- epoch millis, for lag metrics and cleanup
+);
@@ -2,13 +2,42 @@
 -- PORTLAND BREWPUBS DATABASE SCHEMA
 -- ==============================================
 
--- Drop table if exists (for clean restart during development)
+-- In-memory mode only (the durable profile applies db/migration/V*.sql instead)
+-- Keep both in sync: every schema change here also needs a new V<n>__ migration
+
+-- Drop tables if exist (for clean restart during development)
 DROP TABLE IF EXISTS BREWERIES;
+DROP TABLE IF EXISTS USERS;
+DROP TABLE IF EXISTS BREWERY_INVALIDATIONS;
 
 -- Create BREWERIES table
 CREATE TABLE BREWERIES (
                            brewery_id INT PRIMARY KEY AUTO_INCREMENT,
                            name VARCHAR(100) NOT NULL,
                            address VARCHAR(200) NOT NULL,
-                           signature_beer VARCHAR(100)
+                           signature_beer VARCHAR(100),
+                           latitude DOUBLE,           -- WGS84 degrees (NULL = location unknown)
+                           longitude DOUBLE,
+                           version INT DEFAULT 0 NOT NULL   -- optimistic concurrency: +1 per update
+);
+
+-- Create USERS table (registrations from /register)
+CREATE TABLE USERS (
+                       user_id INT PRIMARY KEY AUTO_INCREMENT,
+                       username VARCHAR(50) NOT NULL,
+                       email VARCHAR(100) NOT NULL,          -- stored lowercase
+                       created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- One account per username and per email (also makes the duplicate lookups index seeks)
+CREATE UNIQUE INDEX ux_users_username ON USERS (username);
+CREATE UNIQUE INDEX ux_users_email ON USERS (email);
+
+-- Create BREWERY_INVALIDATIONS table (database-polling invalidation bus, multi-instance deployments)
+-- One row per brewery write; every other instance polls for ids > the last one it has seen
+CREATE TABLE BREWERY_INVALIDATIONS (
+                       invalidation_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+                       origin_node VARCHAR(64) NOT NULL,     -- instance that made the write (skips its own rows)
+                       brewery_id INT,                       -- NULL = everything (bulk import → full reload)
+                       published_at BIGINT NOT NULL          -- epoch millis, for lag metrics and cleanup
 );
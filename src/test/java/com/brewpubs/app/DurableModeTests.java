@@ -0,0 +1,60 @@
+package com.brewpubs.app;
+
+import com.brewpubs.app.models.Brewery;
+import com.brewpubs.app.services.BreweryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Durable profile: data written in one run is still there in the next, and migrations run only once
+ */
+class DurableModeTests {
+
+    @TempDir
+    Path databaseDir;
+
+    @Test
+    void restartKeepsDataAndSkipsAppliedMigrations() {
+        // First start: empty folder → every migration runs (V1 tables, V2 seed, ...)
+        int migrations;
+        try (ConfigurableApplicationContext context = start()) {
+            BreweryService breweryService = context.getBean(BreweryService.class);
+            assertEquals(6, breweryService.getBreweryCount());
+
+            Brewery brewery = new Brewery();
+            brewery.setName("Durable Test Brewery");
+            brewery.setAddress("1 Test St, Portland, ME");
+            breweryService.addBrewery(brewery);
+            migrations = historyRows(context);
+            assertTrue(migrations >= 2);
+        }
+
+        // Second start: same file → nothing applied again, nothing reseeded, the new row is still there
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals(7, context.getBean(BreweryService.class).getBreweryCount());
+            assertEquals(migrations, historyRows(context));
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(PortlandBrewpubsApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("durable")
+                .properties("brewpubs.db.dir=" + databaseDir.toAbsolutePath(), "logging.level.root=WARN")
+                .run();
+    }
+
+    private static int historyRows(ConfigurableApplicationContext context) {
+        Integer rows = context.getBean(JdbcTemplate.class).queryForObject("SELECT COUNT(*) FROM SCHEMA_HISTORY", Integer.class);
+        return rows == null ? 0 : rows;
+    }
+}
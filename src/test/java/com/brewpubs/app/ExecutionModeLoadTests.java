@@ -0,0 +1,138 @@
+package com.brewpubs.app;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Platform threads vs virtual threads under the same bursty load
+ *
+ * Boots the app twice on a random port (once per mode), drives CLIENTS concurrent
+ * closed-loop clients at GET /breweries for DURATION, and prints throughput + p50/p99.
+ *
+ * Run: ./mvnw -P load-tests test
+ */
+@Tag("load")
+class ExecutionModeLoadTests {
+
+    private static final int CLIENTS = 400;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration DURATION = Duration.ofSeconds(15);
+
+    @Test
+    void compareExecutionModes() throws Exception {
+        Result platform = run("platform", false);
+        Result virtual = run("virtual", true);
+
+        System.out.println("=== GET /breweries, " + CLIENTS + " concurrent clients, " + DURATION.toSeconds() + "s ===");
+        System.out.println(platform);
+        System.out.println(virtual);
+
+        assertTrue(platform.ok > 0 && virtual.ok > 0, "both modes must serve requests");
+    }
+
+    private Result run(String mode, boolean virtualThreads) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(PortlandBrewpubsApplication.class);
+        if (virtualThreads) {
+            builder.profiles("virtual");  // application-virtual.properties
+        }
+        ConfigurableApplicationContext context = builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest_" + mode + ";DB_CLOSE_DELAY=-1",
+                "--logging.level.root=WARN");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/breweries");
+            drive(uri, WARMUP);                       // JIT + pools warm
+            Result result = drive(uri, DURATION);
+            result.mode = mode;
+            return result;
+        } finally {
+            SpringApplication.exit(context);
+        }
+    }
+
+    private Result drive(URI uri, Duration duration) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong ok = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            latencies.add(System.nanoTime() - start);
+                            if (response.statusCode() == 200) {
+                                ok.incrementAndGet();
+                            } else {
+                                failed.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }   // close() waits for every client to finish
+
+        Result result = new Result();
+        result.ok = ok.get();
+        result.failed = failed.get();
+        result.seconds = duration.toMillis() / 1000.0;
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        result.p50Millis = percentile(sorted, 0.50);
+        result.p99Millis = percentile(sorted, 0.99);
+        return result;
+    }
+
+    private static double percentile(List<Long> sortedNanos, double quantile) {
+        if (sortedNanos.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(0, index)) / 1_000_000.0;
+    }
+
+    private static class Result {
+        String mode;
+        long ok;
+        long failed;
+        double seconds;
+        double p50Millis;
+        double p99Millis;
+
+        @Override
+        public String toString() {
+            return String.format("%-8s  %8.0f req/s  p50 %7.2f ms  p99 %7.2f ms  (ok=%d, non-200/errors=%d)",
+                    mode, ok / seconds, p50Millis, p99Millis, ok, failed);
+        }
+    }
+}
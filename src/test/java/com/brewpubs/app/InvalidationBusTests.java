@@ -0,0 +1,99 @@
+package com.brewpubs.app;
+
+import com.brewpubs.app.models.Brewery;
+import com.brewpubs.app.services.BreweryInvalidationBus;
+import com.brewpubs.app.services.DatabasePollingInvalidationBus;
+import com.brewpubs.app.services.LoopbackInvalidationBus;
+import com.brewpubs.app.services.BreweryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two "instances" (application contexts) in one JVM sharing one in-memory database:
+ * a write on node A must show up on node B, for both invalidation bus implementations
+ */
+class InvalidationBusTests {
+
+    private static final Duration DEADLINE = Duration.ofSeconds(5);
+
+    @Test
+    void loopbackBusKeepsContextsCoherent() throws InterruptedException {
+        writesOnOneNodeReachTheOther("loopback");
+    }
+
+    @Test
+    void databasePollingBusKeepsContextsCoherent() throws InterruptedException {
+        writesOnOneNodeReachTheOther("database");
+    }
+
+    private void writesOnOneNodeReachTheOther(String bus) throws InterruptedException {
+        String url = "jdbc:h2:mem:coherence_" + bus + ";DB_CLOSE_DELAY=-1";
+        try (ConfigurableApplicationContext nodeA = start(bus, url, "always");
+             ConfigurableApplicationContext nodeB = start(bus, url, "never")) {  // B must not re-run schema.sql
+            Class<?> expected = bus.equals("database") ? DatabasePollingInvalidationBus.class : LoopbackInvalidationBus.class;
+            assertInstanceOf(expected, nodeA.getBean(BreweryInvalidationBus.class));
+            assertInstanceOf(expected, nodeB.getBean(BreweryInvalidationBus.class));
+
+            BreweryService a = nodeA.getBean(BreweryService.class);
+            BreweryService b = nodeB.getBean(BreweryService.class);
+            assertEquals(a.getBreweryCount(), b.getBreweryCount());
+
+            // create on A → B sees it
+            Brewery brewery = new Brewery("Coherence Brewing", "1 Cache St, Portland, ME", "Stale Not (IPA)");
+            a.addBrewery(brewery);
+            int id = brewery.getBreweryId();
+            await(() -> b.getBreweryById(id) != null);
+            assertEquals(a.getBreweryCount(), b.getBreweryCount());
+
+            // update on A → B serves the new name and version
+            long versionBefore = b.getDataVersion();
+            brewery.setName("Coherence Brewing Co.");
+            a.updateBrewery(brewery);
+            await(() -> "Coherence Brewing Co.".equals(b.getBreweryById(id).getName()));
+            assertEquals(brewery.getVersion(), b.getBreweryById(id).getVersion());
+            assertTrue(b.getDataVersion() > versionBefore, "B's page cache/ETags must move on");
+            assertEquals(1, b.searchBreweries("coherence", 10).size());
+
+            // delete on A → gone on B
+            a.deleteBrewery(id);
+            await(() -> b.getBreweryById(id) == null);
+            assertNull(b.getBreweryById(id));
+            assertEquals(a.getBreweryCount(), b.getBreweryCount());
+
+            BreweryInvalidationBus busB = nodeB.getBean(BreweryInvalidationBus.class);
+            assertTrue(busB.getReceived() >= 3);
+            assertTrue(busB.getLag().getCount() > 0);
+            System.out.printf("=== %s bus: %d invalidations, lag p50 %.2f ms, max %.2f ms ===%n", bus,
+                    busB.getReceived(), busB.getLag().getPercentileNanos(0.5) / 1e6, busB.getLag().getMaxNanos() / 1e6);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String bus, String url, String sqlInitMode) {
+        return new SpringApplicationBuilder(PortlandBrewpubsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=" + url,
+                        "--spring.sql.init.mode=" + sqlInitMode,
+                        "--brewpubs.invalidation.bus=" + bus,
+                        "--brewpubs.invalidation.poll-interval-ms=20",
+                        "--logging.level.root=WARN");
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + DEADLINE.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "node B did not catch up within " + DEADLINE);
+            Thread.sleep(10);
+        }
+    }
+}
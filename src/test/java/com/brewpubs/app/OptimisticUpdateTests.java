@@ -0,0 +1,147 @@
+package com.brewpubs.app;
+
+import com.brewpubs.app.models.Brewery;
+import com.brewpubs.app.models.BreweryBatchUpdateResult;
+import com.brewpubs.app.services.BreweryService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Versioned (compare-and-set) brewery updates through the service and the REST API:
+ * a stale version is rejected (0 rows / 409 with the latest row), and a batch splits into
+ * updated / conflicts / notFound
+ */
+class OptimisticUpdateTests {
+
+    private static ConfigurableApplicationContext context;
+    private static BreweryService breweries;
+    private static String base;
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void start() {
+        context = new SpringApplicationBuilder(PortlandBrewpubsApplication.class)
+                .run("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:optimistic;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN");
+        breweries = context.getBean(BreweryService.class);
+        base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @AfterAll
+    static void stop() {
+        SpringApplication.exit(context);
+    }
+
+    @Test
+    void staleVersionIsRejectedAndLeavesTheRowAlone() {
+        Brewery brewery = newBrewery("Stale Version Brewing");
+        int readVersion = brewery.getVersion();
+
+        Brewery first = copy(brewery, "First Writer Brewing");
+        assertEquals(1, breweries.updateBrewery(first));
+        assertEquals(readVersion + 1, (int) first.getVersion());
+
+        Brewery second = copy(brewery, "Second Writer Brewing");  // still carries the version both read
+        assertEquals(0, breweries.updateBrewery(second));
+
+        Brewery current = breweries.getBreweryById(brewery.getBreweryId());
+        assertEquals("First Writer Brewing", current.getName());
+        assertEquals(readVersion + 1, (int) current.getVersion());
+    }
+
+    @Test
+    void unversionedUpdateReportsTheVersionItWrote() {
+        Brewery brewery = newBrewery("Last Writer Brewing");
+        Brewery update = copy(brewery, "Last Writer Wins Brewing");
+        update.setVersion(null);
+
+        assertEquals(1, breweries.updateBrewery(update));
+        assertEquals(brewery.getVersion() + 1, (int) update.getVersion());
+        assertEquals(update.getVersion(), breweries.getBreweryById(brewery.getBreweryId()).getVersion());
+
+        Brewery missing = copy(brewery, "Nobody");
+        missing.setBreweryId(Integer.MAX_VALUE);
+        missing.setVersion(null);
+        assertEquals(0, breweries.updateBrewery(missing));
+    }
+
+    @Test
+    void putWithStaleVersionIsAConflictWithTheLatestRow() throws Exception {
+        Brewery brewery = newBrewery("Conflict Brewing");
+        int id = brewery.getBreweryId();
+        String stale = json("Conflict Brewing Co.", brewery.getVersion());
+
+        assertEquals(200, put("/api/breweries/" + id, stale).statusCode());
+
+        HttpResponse<String> conflict = put("/api/breweries/" + id, stale);
+        assertEquals(409, conflict.statusCode());
+        assertTrue(conflict.body().contains("\"version\":" + (brewery.getVersion() + 1)), conflict.body());
+
+        assertEquals(404, put("/api/breweries/" + Integer.MAX_VALUE, stale).statusCode());
+    }
+
+    @Test
+    void mixedBatchSplitsIntoUpdatedConflictsAndNotFound() {
+        Brewery fresh = newBrewery("Batch Fresh Brewing");
+        Brewery stale = newBrewery("Batch Stale Brewing");
+        assertEquals(1, breweries.updateBrewery(copy(stale, "Batch Stale Brewing (moved on)")));
+
+        Brewery missing = copy(fresh, "Batch Missing Brewing");
+        missing.setBreweryId(Integer.MAX_VALUE);
+        long dataVersion = breweries.getDataVersion();
+
+        BreweryBatchUpdateResult result = breweries.updateBreweries(List.of(
+                copy(fresh, "Batch Fresh Brewing Co."),
+                copy(stale, "Batch Stale Brewing Co."),
+                missing));
+
+        assertEquals(List.of(fresh.getBreweryId()), result.getUpdated().stream().map(Brewery::getBreweryId).toList());
+        assertEquals(List.of(stale.getBreweryId()), result.getConflicts());
+        assertEquals(List.of(Integer.MAX_VALUE), result.getNotFound());
+        assertEquals("Batch Fresh Brewing Co.", breweries.getBreweryById(fresh.getBreweryId()).getName());
+        assertEquals("Batch Stale Brewing (moved on)", breweries.getBreweryById(stale.getBreweryId()).getName());
+        assertNull(breweries.getBreweryById(Integer.MAX_VALUE));
+        assertEquals(dataVersion + 1, breweries.getDataVersion());  // one batch → one new snapshot
+    }
+
+    private static Brewery newBrewery(String name) {
+        Brewery brewery = new Brewery(name, "1 Version St, Portland, ME", "Compare And Set (IPA)");
+        assertEquals(1, breweries.addBrewery(brewery));
+        return breweries.getBreweryById(brewery.getBreweryId());
+    }
+
+    // what a second client that read the same row would send
+    private static Brewery copy(Brewery brewery, String name) {
+        Brewery copy = new Brewery(brewery.getBreweryId(), name, brewery.getAddress(), brewery.getSignatureBeer());
+        copy.setVersion(brewery.getVersion());
+        return copy;
+    }
+
+    private static String json(String name, int version) {
+        return "{\"name\":\"" + name + "\",\"address\":\"1 Version St, Portland, ME\","
+                + "\"signatureBeer\":\"Compare And Set (IPA)\",\"version\":" + version + "}";
+    }
+
+    private static HttpResponse<String> put(String path, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(base + path))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
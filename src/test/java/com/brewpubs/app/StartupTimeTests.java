@@ -0,0 +1,151 @@
+package com.brewpubs.app;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Startup-time regression guard: time from "java ..." to the first successful GET /breweries
+ *
+ * Starts the app in a NEW JVM (nothing loaded or JIT-compiled yet, like a freshly scaled-out instance)
+ * and polls /breweries until it answers 200. Does that startup.runs times and takes the median.
+ *
+ * Baseline, per configuration (classpath, or jar + JVM args), in startup-baseline.properties:
+ *   - no baseline yet → the median is recorded and the test passes (commit nothing: the file is per machine)
+ *   - otherwise fails if the median is more than startup.max-regression (default 0.20 = 20%) above it
+ *   - -Dstartup.record-baseline=true re-records it (after an intended change, or on a new machine)
+ *
+ * Default: the regular classpath startup (what ./mvnw test compiled).
+ * Fast-start: ./mvnw -P fast-start verify builds the AOT + CDS jar and then runs this test against it
+ * (the 'startup-time' surefire execution in pom.xml sets startup.jar and startup.jvm-args).
+ */
+class StartupTimeTests {
+
+    private static final String JAR = System.getProperty("startup.jar", "");
+    private static final String JVM_ARGS = System.getProperty("startup.jvm-args", "");
+    private static final int RUNS = Integer.getInteger("startup.runs", 3);
+    private static final double MAX_REGRESSION = Double.parseDouble(System.getProperty("startup.max-regression", "0.20"));
+    private static final Path BASELINE_FILE = Path.of(System.getProperty("startup.baseline-file", "startup-baseline.properties"));
+    private static final boolean RECORD = Boolean.getBoolean("startup.record-baseline");
+    private static final long GIVE_UP_MILLIS = 60_000;  // a hung start, not a measurement
+
+    @Test
+    void firstBreweriesResponseNoSlowerThanBaseline() throws Exception {
+        String configuration = (JAR.isBlank() ? "classpath" : new File(JAR).getName())
+                + (JVM_ARGS.isBlank() ? "" : " " + JVM_ARGS.trim());
+
+        long[] runs = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            runs[i] = timeToFirstResponse();
+        }
+        long[] sorted = runs.clone();
+        Arrays.sort(sorted);
+        long median = sorted[RUNS / 2];
+
+        Properties baselines = new Properties();
+        if (Files.exists(BASELINE_FILE)) {
+            try (Reader in = Files.newBufferedReader(BASELINE_FILE)) {
+                baselines.load(in);
+            }
+        }
+        String recorded = baselines.getProperty(configuration);
+        System.out.println("=== time to first successful /breweries (" + configuration + "): median " + median
+                + " ms of " + Arrays.toString(runs) + (recorded == null ? "" : ", baseline " + recorded + " ms") + " ===");
+
+        if (recorded == null || RECORD) {
+            baselines.setProperty(configuration, Long.toString(median));
+            try (Writer out = Files.newBufferedWriter(BASELINE_FILE)) {
+                baselines.store(out, "StartupTimeTests: median ms to the first successful /breweries, per configuration");
+            }
+            System.out.println("⚠️ startup baseline recorded in " + BASELINE_FILE.toAbsolutePath() + ": " + median + " ms");
+            return;
+        }
+
+        long baseline = Long.parseLong(recorded);
+        long limit = Math.round(baseline * (1 + MAX_REGRESSION));
+        assertTrue(median <= limit, "startup took " + median + " ms, " + Math.round(100.0 * (median - baseline) / baseline)
+                + "% over the " + baseline + " ms baseline (allowed: " + Math.round(MAX_REGRESSION * 100) + "%)");
+    }
+
+    private static long timeToFirstResponse() throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String arg : JVM_ARGS.trim().split("\\s+")) {
+            if (!arg.isEmpty()) {
+                command.add(arg);
+            }
+        }
+        if (JAR.isBlank()) {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(PortlandBrewpubsApplication.class.getName());
+        } else {
+            command.add("-jar");
+            command.add(JAR);
+        }
+        command.add("--server.port=" + port);
+        command.add("--logging.level.root=WARN");
+
+        Path log = Files.createTempFile("startup-time", ".log");
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/breweries"))
+                .timeout(Duration.ofSeconds(5)).GET().build();
+
+        long start = System.nanoTime();
+        Process app = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        long millis;
+        try {
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(GIVE_UP_MILLIS);
+            while (true) {
+                if (!app.isAlive()) {
+                    fail("application exited with " + app.exitValue() + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        break;
+                    }
+                } catch (IOException notListeningYet) {
+                    // keep polling
+                }
+                if (System.nanoTime() > deadline) {
+                    fail("no successful /breweries response within " + GIVE_UP_MILLIS + " ms, see " + log);
+                }
+                Thread.sleep(10);
+            }
+            millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            app.destroy();
+            if (!app.waitFor(10, TimeUnit.SECONDS)) {
+                app.destroyForcibly();
+            }
+        }
+        Files.deleteIfExists(log);
+        return millis;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.brewpubs.app;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stylesheets: fingerprinted links, immutable caching, precompressed variants, compressed HTML
+ *
+ * Also prints what moving the CSS out of the pages saves: a page used to carry its stylesheets inline
+ * on EVERY view; now a repeat view downloads only the HTML (the stylesheets are in the browser cache).
+ */
+class StaticAssetsTests {
+
+    private static final Pattern STYLESHEET = Pattern.compile("<link\\s+rel=\"stylesheet\"\\s+href=\"([^\"]+)\"\\s*/?>");
+    private static final Pattern FINGERPRINTED = Pattern.compile("/css/[a-z-]+-[0-9a-f]{32}\\.css");
+
+    private static ConfigurableApplicationContext context;
+    private static String base;
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void start() {
+        context = new SpringApplicationBuilder(PortlandBrewpubsApplication.class)
+                .run("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:staticassets;DB_CLOSE_DELAY=-1");
+        base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @AfterAll
+    static void stop() {
+        SpringApplication.exit(context);
+    }
+
+    @Test
+    void pagesLinkFingerprintedImmutablePrecompressedStylesheets() throws Exception {
+        Map<String, HttpRequest> pages = new LinkedHashMap<>();
+        pages.put("home", get("/").build());
+        pages.put("brewery-list", get("/breweries").build());
+        pages.put("register", get("/register").build());
+        pages.put("confirmation", HttpRequest.newBuilder(URI.create(base + "/register"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=assets&email=assets@example.com"))
+                .build());
+
+        List<String> report = new ArrayList<>();
+        for (Map.Entry<String, HttpRequest> page : pages.entrySet()) {
+            byte[] html = client.send(page.getValue(), HttpResponse.BodyHandlers.ofByteArray()).body();
+            Matcher links = STYLESHEET.matcher(new String(html));
+            int cssBytes = 0;
+            int cssGzipBytes = 0;
+            int stylesheets = 0;
+            while (links.find()) {
+                String href = links.group(1);
+                assertTrue(FINGERPRINTED.matcher(href).matches(), page.getKey() + " links " + href);
+
+                HttpResponse<byte[]> css = client.send(get(href).build(), HttpResponse.BodyHandlers.ofByteArray());
+                assertEquals(200, css.statusCode());
+                String cacheControl = css.headers().firstValue("Cache-Control").orElse("");
+                assertTrue(cacheControl.contains("max-age=31536000") && cacheControl.contains("immutable"), cacheControl);
+                assertFalse(css.headers().firstValue("Content-Encoding").isPresent());
+
+                HttpResponse<byte[]> gzipped = client.send(get(href).header("Accept-Encoding", "gzip").build(),
+                        HttpResponse.BodyHandlers.ofByteArray());
+                assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElse(""),
+                        href + " (precompressed .gz is written by the build, see pom.xml)");
+
+                cssBytes += css.body().length;
+                cssGzipBytes += gzipped.body().length;
+                stylesheets++;
+            }
+            assertTrue(stylesheets > 0, page.getKey() + " has no stylesheet link");
+
+            report.add(String.format("%-13s html %5d B (gzip %4d B) | stylesheets %5d B (gzip %4d B) moved out"
+                            + " → repeat view %5d B instead of %5d B (-%d%%)",
+                    page.getKey(), html.length, gzip(html).length, cssBytes, cssGzipBytes,
+                    html.length, html.length + cssBytes, Math.round(100.0 * cssBytes / (html.length + cssBytes))));
+        }
+
+        System.out.println("=== bytes per page view, before (CSS inline) vs after (CSS cached) ===");
+        report.forEach(System.out::println);
+    }
+
+    @Test
+    void plainStylesheetUrlIsRevalidatedNotImmutable() throws Exception {
+        HttpResponse<byte[]> css = client.send(get("/css/home.css").build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, css.statusCode());
+        String cacheControl = css.headers().firstValue("Cache-Control").orElse("");
+        assertEquals("no-cache", cacheControl);
+    }
+
+    @Test
+    void htmlIsCompressedWhenAccepted() throws Exception {
+        HttpResponse<byte[]> page = client.send(get("/register").header("Accept-Encoding", "gzip").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, page.statusCode());
+        assertEquals("gzip", page.headers().firstValue("Content-Encoding").orElse(""));
+    }
+
+    private static HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(base + path)).GET();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,81 @@
+package com.brewpubs.app;
+
+import com.brewpubs.app.models.ImportReport;
+import com.brewpubs.app.models.UserImportReport;
+import com.brewpubs.app.services.UserImportService;
+import com.brewpubs.app.services.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk registration: parallel validation with the User constraints, per-line errors, batched writes
+ * (small chunks and batches so even this short file crosses several of each)
+ */
+class UserImportTests {
+
+    @Test
+    void validRowsAreSavedAndEveryBadRowIsReported() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PortlandBrewpubsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:userimport;DB_CLOSE_DELAY=-1",
+                        "--brewpubs.users.import.parallelism=4",
+                        "--brewpubs.users.import.chunk-size=3",
+                        "--brewpubs.users.import.batch-size=2")) {
+            StringBuilder csv = new StringBuilder("username,email\n");
+            csv.append("alice,Alice@Example.com\n");   // line 2
+            csv.append(",bob@example.com\n");          // line 3: no username
+            csv.append("carol,not-an-email\n");        // line 4: bad email
+            csv.append("\n");                          // line 5: blank, skipped
+            csv.append("alice,other@example.com\n");   // line 6: username used on line 2
+            csv.append("eve,ALICE@example.com\n");     // line 7: email used on line 2 (case-insensitive)
+            for (int i = 0; i < 20; i++) {
+                csv.append("attendee").append(i).append(",attendee").append(i).append("@example.com\n");
+            }
+
+            UserImportReport report = context.getBean(UserImportService.class).importUsers(
+                    new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), UserImportService.Format.CSV);
+
+            assertEquals(25L, report.getRowsRead());
+            assertEquals(21L, report.getRowsImported());
+            assertEquals(4L, report.getRowsInvalid());
+            List<Long> badLines = report.getRowErrors().stream().map(ImportReport.RowError::getLine).toList();
+            assertEquals(List.of(3L, 4L, 6L, 7L), badLines);
+            assertTrue(report.getBatches() >= 10, "written in batches of 2, was " + report.getBatches());
+            assertEquals(4, report.getParallelism());
+
+            Integer saved = context.getBean(JdbcTemplate.class).queryForObject(
+                    "SELECT COUNT(*) FROM USERS WHERE username = 'alice' OR username LIKE 'attendee%'", Integer.class);
+            assertEquals(21, (int) saved);
+            assertTrue(context.getBean(UserService.class).isUsernameTaken("attendee7"));
+        }
+    }
+
+    @Test
+    void ndjsonLiteralNullIsAnInvalidRow() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PortlandBrewpubsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:userimportnull;DB_CLOSE_DELAY=-1")) {
+            String ndjson = "{\"username\":\"nina\",\"email\":\"nina@example.com\"}\n"  // line 1
+                    + "null\n"                                                           // line 2
+                    + "{\"username\":\"omar\",\"email\":\"omar@example.com\"}\n";   // line 3
+
+            UserImportReport report = context.getBean(UserImportService.class).importUsers(
+                    new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), UserImportService.Format.NDJSON);
+
+            assertEquals(2L, report.getRowsImported());
+            assertEquals(1L, report.getRowsInvalid());
+            assertEquals(2L, report.getRowErrors().get(0).getLine());
+            assertTrue(report.getRowErrors().get(0).getMessage().contains("null"), report.getRowErrors().get(0).getMessage());
+        }
+    }
+}
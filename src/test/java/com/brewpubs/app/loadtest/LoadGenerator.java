@@ -0,0 +1,159 @@
+package com.brewpubs.app.loadtest;
+
+import com.brewpubs.app.metrics.LatencyHistogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Drives ONE endpoint at a target rate and records latency, corrected for coordinated omission
+ *
+ * MODELS:
+ * - CLOSED: a fixed number of clients, each sending its next request only after the previous answer
+ *           (like browsers/users). Paced: client i sends at its own schedule of clients/rps seconds.
+ * - OPEN:   requests start on a fixed schedule (1/rps apart) no matter how many are still running
+ *           (like independent users arriving). A slow server builds up a backlog instead of
+ *           slowing the generator down.
+ *
+ * COORDINATED OMISSION: if the server stalls for 1 s, a closed-loop client simply doesn't send the
+ * requests it "should" have sent during that second - so they are never measured and p99 looks great.
+ * Every request therefore has an INTENDED start time (its slot in the schedule), and
+ * "corrected" latency = response received - intended start. "service" latency = response received -
+ * actual send (what the server alone took). The gap between the two is time spent waiting to be sent.
+ *
+ * Latencies go into the app's own LatencyHistogram (log-linear, ±12.5% per bucket).
+ */
+final class LoadGenerator {
+
+    enum Model { CLOSED, OPEN }
+
+    private final HttpClient client;
+
+    LoadGenerator() {
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * @param requests  n → the n-th request (unique bodies, e.g. a new username per registration)
+     * @param targetRps requests per second to aim for (for this endpoint)
+     * @param clients   concurrent clients (CLOSED model only)
+     */
+    Result run(String endpoint, LongFunction<HttpRequest> requests, Model model, int targetRps, int clients,
+               Duration warmup, Duration duration) {
+        drive(requests, model, targetRps, clients, warmup, new Result(endpoint, model, targetRps));  // JIT, pools, caches
+        Result result = new Result(endpoint, model, targetRps);
+        long start = System.nanoTime();
+        drive(requests, model, targetRps, clients, duration, result);
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void drive(LongFunction<HttpRequest> requests, Model model, int targetRps, int clients,
+                       Duration duration, Result result) {
+        long intervalNanos = 1_000_000_000L / Math.max(1, targetRps);
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + duration.toNanos();
+        AtomicLong sequence = new AtomicLong();
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (model == Model.CLOSED) {
+                long clientInterval = intervalNanos * clients;  // each client sends every clients/rps seconds
+                for (int c = 0; c < clients; c++) {
+                    long firstSlot = startNanos + c * intervalNanos;  // spread the clients over one interval
+                    threads.submit(() -> {
+                        for (long intended = firstSlot; intended < endNanos; intended += clientInterval) {
+                            waitUntil(intended);  // behind schedule → no wait, and the delay is measured
+                            send(requests.apply(sequence.incrementAndGet()), intended, result);
+                        }
+                    });
+                }
+            } else {
+                for (long intended = startNanos; intended < endNanos; intended += intervalNanos) {
+                    waitUntil(intended);
+                    long slot = intended;
+                    HttpRequest request = requests.apply(sequence.incrementAndGet());
+                    threads.submit(() -> send(request, slot, result));
+                }
+            }
+        }   // close() waits for the outstanding requests
+    }
+
+    private void send(HttpRequest request, long intendedNanos, Result result) {
+        long sentNanos = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            long doneNanos = System.nanoTime();
+            result.corrected.record(doneNanos - intendedNanos);
+            result.service.record(doneNanos - sentNanos);
+            if (response.statusCode() >= 200 && response.statusCode() < 400) {
+                result.ok.increment();
+            } else {
+                result.errors.increment();
+            }
+        } catch (Exception e) {
+            result.corrected.record(System.nanoTime() - intendedNanos);
+            result.errors.increment();
+        }
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * One endpoint under one model
+     */
+    static final class Result {
+        final String endpoint;
+        final Model model;
+        final int targetRps;
+        final LatencyHistogram corrected = new LatencyHistogram();
+        final LatencyHistogram service = new LatencyHistogram();
+        final LongAdder ok = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        long elapsedNanos;
+
+        Result(String endpoint, Model model, int targetRps) {
+            this.endpoint = endpoint;
+            this.model = model;
+            this.targetRps = targetRps;
+        }
+
+        double achievedRps() {
+            return (ok.sum() + errors.sum()) / (elapsedNanos / 1e9);
+        }
+
+        double errorRate() {
+            long total = ok.sum() + errors.sum();
+            return total == 0 ? 1.0 : (double) errors.sum() / total;
+        }
+
+        static double millis(long nanos) {
+            return Math.round(nanos / 1e3) / 1e3;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-16s %-6s target %6d/s  got %8.1f/s  p50 %8.2f  p99 %8.2f  p999 %8.2f  max %8.2f ms"
+                            + "  (service p99 %.2f ms, ok=%d, errors=%d)",
+                    endpoint, model, targetRps, achievedRps(),
+                    millis(corrected.getPercentileNanos(0.5)), millis(corrected.getPercentileNanos(0.99)),
+                    millis(corrected.getPercentileNanos(0.999)), millis(corrected.getMaxNanos()),
+                    millis(service.getPercentileNanos(0.99)), ok.sum(), errors.sum());
+        }
+    }
+}
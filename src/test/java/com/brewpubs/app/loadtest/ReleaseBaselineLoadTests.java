@@ -0,0 +1,173 @@
+package com.brewpubs.app.loadtest;
+
+import com.brewpubs.app.PortlandBrewpubsApplication;
+import com.brewpubs.app.services.BreweryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Release baseline: GET /, GET /breweries and POST /register under closed- and open-model load
+ *
+ * Boots the app on a random port with its own in-memory database, seeds BREWERIES to load.rows,
+ * then drives each endpoint on its own (one after the other) at load.rps and prints
+ * throughput + coordinated-omission-corrected p50/p99/p999 per endpoint (see LoadGenerator).
+ * The same numbers go to target/load-report.json so runs can be compared by a script.
+ *
+ * Run:       ./mvnw -P load-tests test -Dtest=ReleaseBaselineLoadTests
+ * Settings:  -Dload.rows=100000 -Dload.rps=500 -Dload.clients=64 -Dload.models=closed,open
+ *            -Dload.warmup-s=5 -Dload.duration-s=20 -Dload.profiles=virtual -Dload.report=target/load-report.json
+ */
+@Tag("load")
+class ReleaseBaselineLoadTests {
+
+    private static final int ROWS = Integer.getInteger("load.rows", 10_000);
+    private static final int RPS = Integer.getInteger("load.rps", 200);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 32);
+    private static final String MODELS = System.getProperty("load.models", "closed,open");
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup-s", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.duration-s", 20));
+    private static final String PROFILES = System.getProperty("load.profiles", "");
+    private static final String REPORT = System.getProperty("load.report", "target/load-report.json");
+
+    private static final double MAX_ERROR_RATE = 0.01;
+    private static final AtomicLong USERS = new AtomicLong();
+
+    @Test
+    void releaseBaseline() throws IOException {
+        ConfigurableApplicationContext context = start();
+        List<LoadGenerator.Result> results = new ArrayList<>();
+        try {
+            seed(context, ROWS);
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            Map<String, LongFunction<HttpRequest>> endpoints = new LinkedHashMap<>();
+            endpoints.put("GET /", n -> get(base + "/"));
+            endpoints.put("GET /breweries", n -> get(base + "/breweries"));
+            endpoints.put("POST /register", n -> HttpRequest.newBuilder(URI.create(base + "/register"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(newUserForm()))
+                    .build());
+
+            LoadGenerator generator = new LoadGenerator();
+            for (String model : MODELS.split(",")) {
+                for (Map.Entry<String, LongFunction<HttpRequest>> endpoint : endpoints.entrySet()) {
+                    LoadGenerator.Result result = generator.run(endpoint.getKey(), endpoint.getValue(),
+                            LoadGenerator.Model.valueOf(model.trim().toUpperCase()), RPS, CLIENTS, WARMUP, DURATION);
+                    System.out.println(result);
+                    results.add(result);
+                }
+            }
+        } finally {
+            SpringApplication.exit(context);
+        }
+
+        System.out.println("=== " + ROWS + " breweries, target " + RPS + " req/s per endpoint, "
+                + DURATION.toSeconds() + "s each (latencies from intended send time) ===");
+        results.forEach(System.out::println);
+        writeReport(results);
+
+        for (LoadGenerator.Result result : results) {
+            assertTrue(result.errorRate() <= MAX_ERROR_RATE, result.endpoint + " " + result.model + " error rate too high");
+        }
+    }
+
+    // ========== SETUP ==========
+
+    private static ConfigurableApplicationContext start() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(PortlandBrewpubsApplication.class);
+        if (!PROFILES.isBlank()) {
+            builder.profiles(PROFILES.split(","));
+        }
+        // run arguments, not builder.properties(): those are defaults, application.properties overrides them
+        return builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadbaseline;DB_CLOSE_DELAY=-1",
+                "--brewpubs.register.rate-limit.enabled=false",  // every request comes from localhost
+                "--logging.level.root=WARN");
+    }
+
+    /**
+     * Top BREWERIES up to rows with one INSERT ... SELECT, then rebuild the service's snapshot and indexes
+     */
+    private static void seed(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Integer existing = jdbc.queryForObject("SELECT COUNT(*) FROM BREWERIES", Integer.class);
+        int missing = rows - (existing == null ? 0 : existing);
+        if (missing > 0) {
+            jdbc.update("INSERT INTO BREWERIES (name, address, signature_beer, latitude, longitude) " +
+                    "SELECT 'Load Brewery ' || X, X || ' Industrial Way, Portland, ME', 'House Ale (IPA)', " +
+                    "43.60 + MOD(X, 1000) / 10000.0, -70.30 + MOD(X, 997) / 10000.0 " +
+                    "FROM SYSTEM_RANGE(1, ?)", missing);
+        }
+        context.getBean(BreweryService.class).reloadFromDatabase();
+    }
+
+    // every registration a NEW user (across warmup, runs and models) → each one is really queued and saved
+    private static String newUserForm() {
+        long user = USERS.incrementAndGet();
+        return "username=load" + user + "&email=load" + user + "@example.com";
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    // ========== REPORT ==========
+
+    private static void writeReport(List<LoadGenerator.Result> results) throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (LoadGenerator.Result result : results) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", result.endpoint);
+            row.put("model", result.model.name().toLowerCase());
+            row.put("targetRps", result.targetRps);
+            row.put("achievedRps", Math.round(result.achievedRps() * 10) / 10.0);
+            row.put("ok", result.ok.sum());
+            row.put("errors", result.errors.sum());
+            row.put("p50Ms", LoadGenerator.Result.millis(result.corrected.getPercentileNanos(0.5)));
+            row.put("p99Ms", LoadGenerator.Result.millis(result.corrected.getPercentileNanos(0.99)));
+            row.put("p999Ms", LoadGenerator.Result.millis(result.corrected.getPercentileNanos(0.999)));
+            row.put("maxMs", LoadGenerator.Result.millis(result.corrected.getMaxNanos()));
+            row.put("serviceP99Ms", LoadGenerator.Result.millis(result.service.getPercentileNanos(0.99)));
+            rows.add(row);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("at", Instant.now().toString());
+        report.put("rows", ROWS);
+        report.put("clients", CLIENTS);
+        report.put("durationSeconds", DURATION.toSeconds());
+        report.put("profiles", PROFILES);
+        report.put("results", rows);
+
+        File file = new File(REPORT);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("Report: " + file.getAbsolutePath());
+    }
+}
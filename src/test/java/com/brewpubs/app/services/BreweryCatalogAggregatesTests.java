@@ -0,0 +1,107 @@
+package com.brewpubs.app.services;
+
+import com.brewpubs.app.models.Brewery;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-town / per-style counts: parsing, deltas, and the cached view
+ */
+class BreweryCatalogAggregatesTests {
+
+    @Test
+    void parsesTownAndStyle() {
+        assertEquals("Portland", BreweryCatalogAggregates.townOf("50 Industrial Way, Portland, ME"));
+        assertEquals("Freeport", BreweryCatalogAggregates.townOf("200 Lower Main St, Freeport"));
+        assertEquals("Other", BreweryCatalogAggregates.townOf("somewhere"));
+        assertEquals("Double IPA", BreweryCatalogAggregates.styleOf("The Substance (Double IPA)"));
+        assertEquals("Other", BreweryCatalogAggregates.styleOf("Allagash White"));
+        assertEquals("Other", BreweryCatalogAggregates.styleOf("Odd ()"));
+    }
+
+    @Test
+    void deltasMatchARecount() {
+        BreweryCatalogAggregates aggregates = new BreweryCatalogAggregates();
+        Brewery a = brewery("1 A St, Portland, ME", "A (IPA)");
+        Brewery b = brewery("2 B St, Portland, ME", "B (Pale Ale)");
+        aggregates.rebuild(List.of(a, b));
+
+        Brewery c = brewery("3 C St, Freeport, ME", "C (IPA)");
+        aggregates.replace(null, c);                                         // insert
+        Brewery bMoved = brewery("2 B St, Freeport, ME", "B (Pale Ale)");
+        aggregates.replace(b, bMoved);                                       // update: town changed
+        aggregates.replace(a, null);                                         // delete
+
+        BreweryCatalogAggregates recount = new BreweryCatalogAggregates();
+        recount.rebuild(List.of(bMoved, c));
+        assertEquals(describe(recount.getView()), describe(aggregates.getView()));
+        assertEquals("Freeport=2", describe(aggregates.getView()).split(" ")[0]);
+    }
+
+    @Test
+    void viewIsReusedUntilSomethingChanges() {
+        BreweryCatalogAggregates aggregates = new BreweryCatalogAggregates();
+        Brewery a = brewery("1 A St, Portland, ME", "A (IPA)");
+        aggregates.rebuild(List.of(a));
+        BreweryCatalogAggregates.View first = aggregates.getView();
+        assertTrue(first == aggregates.getView());
+
+        Brewery renamed = brewery("1 A St, Portland, ME", "A Prime (IPA)");   // same town + style
+        aggregates.replace(a, renamed);
+        assertTrue(first == aggregates.getView());
+
+        aggregates.replace(renamed, brewery("1 A St, Portland, ME", "A Prime (Stout)"));
+        assertTrue(first != aggregates.getView());
+        assertEquals("Portland=1 | Stout=1", describe(aggregates.getView()));
+    }
+
+    @Test
+    void readsDuringRebuildSeeOldOrNewCountsNeverHalf() throws InterruptedException {
+        List<Brewery> rows = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            rows.add(brewery(i + " Main St, Town" + (i % 50) + ", ME", "Beer (Style" + (i % 20) + ")"));
+        }
+        BreweryCatalogAggregates aggregates = new BreweryCatalogAggregates();
+        aggregates.rebuild(rows);
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger partial = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                int total = aggregates.getView().getTowns().stream().mapToInt(BreweryCatalogAggregates.Count::getCount).sum();
+                if (total != rows.size()) {
+                    partial.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 500; i++) {
+            aggregates.rebuild(rows);
+        }
+        done.set(true);
+        reader.join();
+        assertEquals(0, partial.get(), "a reader saw a half-rebuilt count");
+    }
+
+    private static Brewery brewery(String address, String beer) {
+        Brewery brewery = new Brewery();
+        brewery.setAddress(address);
+        brewery.setSignatureBeer(beer);
+        return brewery;
+    }
+
+    private static String describe(BreweryCatalogAggregates.View view) {
+        StringBuilder out = new StringBuilder();
+        view.getTowns().forEach(c -> out.append(c.getName()).append('=').append(c.getCount()).append(' '));
+        out.append('|');
+        view.getStyles().forEach(c -> out.append(' ').append(c.getName()).append('=').append(c.getCount()));
+        return out.toString();
+    }
+}
@@ -0,0 +1,188 @@
+package com.brewpubs.app.services;
+
+import com.brewpubs.app.models.Brewery;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Column snapshot vs List<Brewery>:
+ * 1. Same rows back out (pages, by id, after add/replace/delete, across chunk boundaries)
+ * 2. Prints the retained heap of each at 100k breweries, and of everything BreweryService keeps per
+ *    brewery (snapshot + search index + spatial index + aggregates, built the way reload() builds them)
+ */
+class BreweryCatalogSnapshotMemoryTests {
+
+    private static final int BREWERIES = 100_000;
+    private static final String[] TOWNS = {", Portland, ME", ", South Portland, ME", ", Westbrook, ME", ", Freeport, ME"};
+    private static final String[] BEERS = {"Allagash White", "Epiphany (IPA)", "Daymark (Pale Ale)", "Neverender (Double IPA)"};
+
+    @Test
+    void snapshotMatchesListAndUsesLessMemory() {
+        // List<Brewery>: what the list cache used to hold
+        long before = usedHeap();
+        List<Brewery> list = new ArrayList<>(BREWERIES);
+        for (int id = 1; id <= BREWERIES; id++) {
+            list.add(row(id));
+        }
+        long listBytes = usedHeap() - before;
+
+        // Snapshot built from separately created rows (so it shares no Strings with the list)
+        before = usedHeap();
+        BreweryCatalogSnapshot snapshot = buildSnapshot();
+        long snapshotBytes = usedHeap() - before;
+
+        // The indexes and aggregates on top (they hold ids and coordinates, not Brewery objects)
+        before = usedHeap();
+        Object[] indexes = buildIndexes(snapshot);
+        long indexBytes = usedHeap() - before;
+
+        System.out.printf("=== %,d breweries: List<Brewery> %,d KB (%d B/row), snapshot %,d KB (%d B/row), %.0f%% ===%n",
+                BREWERIES, listBytes / 1024, listBytes / BREWERIES, snapshotBytes / 1024, snapshotBytes / BREWERIES,
+                100.0 * snapshotBytes / listBytes);
+        System.out.printf("=== whole service catalog (snapshot + search + spatial + aggregates): %,d KB (%d B/row) ===%n",
+                (snapshotBytes + indexBytes) / 1024, (snapshotBytes + indexBytes) / BREWERIES);
+        assertEquals(3, indexes.length);
+
+        // Same content
+        assertEquals(BREWERIES, snapshot.size());
+        assertEquals(list.get(41_999).toString(), snapshot.findById(42_000).toString());
+        List<Brewery> page = snapshot.rowsAfter(99_990, 50);
+        assertEquals(10, page.size());
+        assertEquals(list.get(99_990).toString(), page.get(0).toString());
+        assertEquals(TOWNS.length, snapshot.getDistinctAddressSuffixes());
+
+        assertTrue(snapshotBytes < listBytes, "snapshot should be smaller than the List<Brewery>");
+    }
+
+    @Test
+    void copyOnWriteLeavesOldSnapshotUntouched() {
+        BreweryCatalogSnapshot empty = BreweryCatalogSnapshot.empty();
+        BreweryCatalogSnapshot three = empty.with(row(5)).with(row(1)).with(row(3));
+        assertEquals(List.of(1, 3, 5), ids(three.rowsAfter(0, 10)));
+
+        Brewery renamed = row(3);
+        renamed.setName("Renamed");
+        renamed.setAddress("9 Water St, Bath, ME");  // new town → new suffix
+        BreweryCatalogSnapshot updated = three.with(renamed).without(1);
+
+        assertEquals(List.of(3, 5), ids(updated.rowsAfter(0, 10)));
+        assertEquals("Renamed", updated.findById(3).getName());
+        assertEquals("9 Water St, Bath, ME", updated.findById(3).getAddress());
+        assertEquals("Brewery 3", three.findById(3).getName());  // old snapshot unchanged
+        assertNull(updated.findById(1));
+        assertEquals(0, empty.size());
+    }
+
+    @Test
+    void olderVersionNeverReplacesNewerRow() {
+        Brewery v2 = row(7);
+        v2.setVersion(2);
+        v2.setName("Second edit");
+        Brewery v1 = row(7);
+        v1.setVersion(1);
+        v1.setName("First edit");
+
+        // writers finished out of order: the v1 write lands in the snapshot after v2
+        BreweryCatalogSnapshot snapshot = BreweryCatalogSnapshot.empty().with(v2).with(v1);
+        assertEquals("Second edit", snapshot.findById(7).getName());
+        assertEquals(2, (int) snapshot.findById(7).getVersion());
+    }
+
+    @Test
+    void editsAcrossChunksMatchASortedMap() {
+        Random random = new Random(11);
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        BreweryCatalogSnapshot.Builder builder = new BreweryCatalogSnapshot.Builder();
+        for (int id = 2; id <= 5 * BreweryCatalogSnapshot.CHUNK_ROWS; id += 2) {  // even ids, several full chunks
+            builder.add(row(id));
+            expected.put(id, "Brewery " + id);
+        }
+        BreweryCatalogSnapshot snapshot = builder.build();
+
+        for (int round = 0; round < 200; round++) {
+            BreweryCatalogSnapshot before = snapshot;
+            int beforeSize = before.size();
+            BreweryCatalogSnapshot.Editor editor = snapshot.edit();
+            for (int i = 0; i < 50; i++) {
+                int id = 1 + random.nextInt(6 * BreweryCatalogSnapshot.CHUNK_ROWS);  // odd ids split full chunks
+                int op = random.nextInt(3);
+                if (op == 0) {
+                    editor.remove(id);
+                    expected.remove(id);
+                } else if (op == 1) {
+                    Brewery brewery = row(id);
+                    brewery.setName("Round " + round);
+                    editor.put(brewery);
+                    expected.put(id, brewery.getName());
+                } else {
+                    Brewery brewery = row(id);
+                    brewery.setName("Replaced " + round);
+                    editor.replace(brewery);  // only if it's there
+                    expected.computeIfPresent(id, (k, v) -> brewery.getName());
+                }
+            }
+            snapshot = editor.build();
+            assertEquals(beforeSize, before.size());  // the old snapshot never changes
+
+            assertEquals(expected.size(), snapshot.size());
+            List<Brewery> all = snapshot.toList();
+            assertEquals(new ArrayList<>(expected.keySet()), ids(all));
+            for (Brewery brewery : all) {
+                assertEquals(expected.get(brewery.getBreweryId()), brewery.getName());
+            }
+            int after = random.nextInt(6 * BreweryCatalogSnapshot.CHUNK_ROWS);
+            assertEquals(new ArrayList<>(expected.tailMap(after, false).keySet()).subList(0,
+                    Math.min(20, expected.tailMap(after, false).size())), ids(snapshot.rowsAfter(after, 20)));
+        }
+    }
+
+    // separate method: the builder's growth arrays are garbage by the time we measure
+    private static BreweryCatalogSnapshot buildSnapshot() {
+        BreweryCatalogSnapshot.Builder builder = new BreweryCatalogSnapshot.Builder();
+        for (int id = 1; id <= BREWERIES; id++) {
+            builder.add(row(id));
+        }
+        return builder.build();
+    }
+
+    // what reload() builds next to the snapshot
+    private static Object[] buildIndexes(BreweryCatalogSnapshot snapshot) {
+        List<Brewery> rows = snapshot.toList();
+        BrewerySearchIndex search = new BrewerySearchIndex();
+        search.rebuild(rows);
+        BrewerySpatialIndex spatial = new BrewerySpatialIndex(0.01);
+        spatial.rebuild(rows);
+        BreweryCatalogAggregates aggregates = new BreweryCatalogAggregates();
+        aggregates.rebuild(rows);
+        return new Object[]{search, spatial, aggregates};
+    }
+
+    private static Brewery row(int id) {
+        Brewery brewery = new Brewery(id, "Brewery " + id, id + " Main St" + TOWNS[id % TOWNS.length],
+                new String(BEERS[id % BEERS.length]));  // JDBC creates a new String per row
+        brewery.setLatitude(43.6 + id * 1e-6);
+        brewery.setLongitude(-70.3 - id * 1e-6);
+        brewery.setVersion(0);  // rows from the database always have one
+        return brewery;
+    }
+
+    private static List<Integer> ids(List<Brewery> breweries) {
+        return breweries.stream().map(Brewery::getBreweryId).toList();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,77 @@
+package com.brewpubs.app.services;
+
+import com.brewpubs.app.models.BreweryChangeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Change feed: resume from a Last-Event-ID, reset when too far behind, drop slow subscribers
+ */
+class BreweryChangeFeedTests {
+
+    @Test
+    void reconnectWithLastEventIdReplaysOnlyMissedEvents() throws InterruptedException {
+        BreweryChangeFeed feed = new BreweryChangeFeed(100, 50);
+        for (int id = 1; id <= 5; id++) {
+            feed.publish(BreweryChangeEvent.Type.UPDATED, id, null);
+        }
+
+        BreweryChangeFeed.Subscription subscription = feed.subscribe(feed.eventId(3));
+        feed.publish(BreweryChangeEvent.Type.DELETED, 6, null);
+
+        assertFalse(subscription.needsReset());
+        assertEquals(List.of(4L, 5L, 6L), drain(subscription));
+    }
+
+    @Test
+    void idOutsideHistoryOrFromEarlierRunStartsWithReset() {
+        BreweryChangeFeed feed = new BreweryChangeFeed(10, 50);
+        for (int id = 1; id <= 30; id++) {
+            feed.publish(BreweryChangeEvent.Type.CREATED, id, null);
+        }
+
+        BreweryChangeFeed.Subscription tooOld = feed.subscribe(feed.eventId(5));  // 6..20 overwritten
+        assertTrue(tooOld.needsReset());
+        assertEquals(30, tooOld.getResetAt());
+
+        BreweryChangeFeed.Subscription earlierRun = feed.subscribe("12345-29");
+        assertTrue(earlierRun.needsReset());
+        assertEquals(2, feed.getResets());
+    }
+
+    @Test
+    void fullBufferDropsOnlyThatSubscriber() throws InterruptedException {
+        BreweryChangeFeed feed = new BreweryChangeFeed(100, 3);
+        BreweryChangeFeed.Subscription slow = feed.subscribe(null);
+        BreweryChangeFeed.Subscription fast = feed.subscribe(null);
+
+        for (int id = 1; id <= 4; id++) {
+            feed.publish(BreweryChangeEvent.Type.UPDATED, id, null);
+            if (id < 4) {
+                fast.poll(0, TimeUnit.MILLISECONDS);  // keeps up
+            }
+        }
+
+        assertEquals(1, feed.getOverflows());
+        assertEquals(1, feed.getSubscriberCount());
+        assertEquals(List.of(1L, 2L, 3L), drain(slow));  // buffered events still go out...
+        assertTrue(slow.isOverflowed());                 // ...then it is disconnected
+        assertEquals(List.of(4L), drain(fast));
+    }
+
+    private static List<Long> drain(BreweryChangeFeed.Subscription subscription) throws InterruptedException {
+        List<Long> seqs = new ArrayList<>();
+        BreweryChangeEvent event;
+        while ((event = subscription.poll(0, TimeUnit.MILLISECONDS)) != null) {
+            seqs.add(event.getSeq());
+        }
+        return seqs;
+    }
+}
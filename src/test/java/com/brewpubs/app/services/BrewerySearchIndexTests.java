@@ -0,0 +1,63 @@
+package com.brewpubs.app.services;
+
+import com.brewpubs.app.models.Brewery;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Merged, early-terminating search vs a plain filter over every brewery: same ids, same order
+ */
+class BrewerySearchIndexTests {
+
+    private static final String[] BEERS = {"Lunch (IPA)", "Daymark (Pale Ale)", "Allagash White", "Indie (IPA)"};
+
+    @Test
+    void firstPageMatchesFullScan() {
+        List<Brewery> breweries = new ArrayList<>();
+        for (int id = 1; id <= 2_000; id++) {
+            String street = id % 3 == 0 ? "Industrial Way" : "Fox St";
+            breweries.add(new Brewery(id, "Brewery " + id, id + " " + street + ", Portland, ME", BEERS[id % BEERS.length]));
+        }
+        BrewerySearchIndex index = new BrewerySearchIndex();
+        index.rebuild(breweries);
+
+        for (String query : List.of("ipa", "ind", "industrial wa", "i", "brewery 19", "portland ipa", "zzz")) {
+            for (int limit : new int[]{1, 7, 50, 5_000}) {
+                assertEquals(fullScan(breweries, query, limit), index.search(query, limit), query + " / " + limit);
+            }
+        }
+    }
+
+    @Test
+    void updatesAndDeletesKeepPostingListsSorted() {
+        BrewerySearchIndex index = new BrewerySearchIndex();
+        for (int id : new int[]{5, 1, 9, 3}) {  // out of order, e.g. rows arriving from other instances
+            index.put(new Brewery(id, "Brewery " + id, "Portland", "Lunch (IPA)"));
+        }
+        index.put(new Brewery(3, "Brewery 3", "Portland", "Allagash White"));  // no longer an IPA
+        index.remove(9);
+
+        assertEquals(List.of(1, 5), index.search("ipa", 10));
+        assertEquals(List.of(1, 3, 5), index.search("portland", 10));
+    }
+
+    private static List<Integer> fullScan(List<Brewery> breweries, String query, int limit) {
+        List<String> terms = BrewerySearchIndex.tokenize(query);
+        return breweries.stream()
+                .filter(b -> terms.stream().allMatch(term -> tokens(b).stream().anyMatch(t -> t.startsWith(term))))
+                .map(Brewery::getBreweryId)
+                .limit(limit)
+                .toList();
+    }
+
+    private static List<String> tokens(Brewery brewery) {
+        List<String> tokens = new ArrayList<>(BrewerySearchIndex.tokenize(brewery.getName()));
+        tokens.addAll(BrewerySearchIndex.tokenize(brewery.getAddress()));
+        tokens.addAll(BrewerySearchIndex.tokenize(brewery.getSignatureBeer()));
+        return tokens;
+    }
+}
@@ -0,0 +1,59 @@
+package com.brewpubs.app.services;
+
+import com.brewpubs.app.models.Brewery;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Grid index vs brute-force distance scan at 100k breweries around greater Portland:
+ * same k nearest, and the grid must be at least MIN_SPEEDUP times faster per query
+ * (correctness alone runs in the default build: BrewerySpatialIndexTests)
+ *
+ * Run: ./mvnw -P load-tests test -Dtest=BrewerySpatialIndexLoadTests
+ */
+@Tag("load")
+class BrewerySpatialIndexLoadTests {
+
+    private static final int BREWERIES = 100_000;
+    private static final int QUERIES = 2_000;
+    private static final int K = 10;
+    private static final double MIN_SPEEDUP = 20;  // typically a few hundred times; 20 leaves room for noisy CI hosts
+
+    @Test
+    void gridIndexIsFasterThanBruteForce() {
+        Random random = new Random(42);
+        List<Brewery> breweries = BrewerySpatialIndexTests.breweriesAroundPortland(random, BREWERIES);
+        BrewerySpatialIndex index = new BrewerySpatialIndex(0.01);
+        index.rebuild(breweries);
+        double[][] points = BrewerySpatialIndexTests.pointsAroundPortland(random, QUERIES);
+
+        // correctness (and JIT warm-up for both paths)
+        for (double[] point : points) {
+            assertEquals(BrewerySpatialIndexTests.bruteForce(breweries, point[0], point[1], K),
+                    BrewerySpatialIndexTests.ids(index.nearest(point[0], point[1], K)));
+        }
+
+        long start = System.nanoTime();
+        for (double[] point : points) {
+            BrewerySpatialIndexTests.bruteForce(breweries, point[0], point[1], K);
+        }
+        long bruteNanos = (System.nanoTime() - start) / QUERIES;
+
+        start = System.nanoTime();
+        for (double[] point : points) {
+            index.nearest(point[0], point[1], K);
+        }
+        long gridNanos = Math.max(1, (System.nanoTime() - start) / QUERIES);
+
+        double speedup = (double) bruteNanos / gridNanos;
+        System.out.printf("k=%d nearest of %,d breweries: brute force %,d µs/query, grid index %,d µs/query (%.0fx)%n",
+                K, BREWERIES, bruteNanos / 1_000, gridNanos / 1_000, speedup);
+        assertTrue(speedup >= MIN_SPEEDUP, String.format("grid index only %.1fx faster than brute force", speedup));
+    }
+}
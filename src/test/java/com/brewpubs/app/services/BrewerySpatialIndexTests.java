@@ -0,0 +1,70 @@
+package com.brewpubs.app.services;
+
+import com.brewpubs.app.models.Brewery;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Grid index must return exactly the k nearest breweries a brute-force distance scan finds
+ * (timing at 100k breweries: BrewerySpatialIndexLoadTests)
+ */
+class BrewerySpatialIndexTests {
+
+    @Test
+    void nearestMatchesBruteForce() {
+        Random random = new Random(7);
+        List<Brewery> breweries = breweriesAroundPortland(random, 5_000);
+        BrewerySpatialIndex index = new BrewerySpatialIndex(0.01);
+        index.rebuild(breweries);
+
+        for (double[] point : pointsAroundPortland(random, 200)) {
+            for (int k : new int[]{1, 10, 50}) {
+                assertEquals(bruteForce(breweries, point[0], point[1], k), ids(index.nearest(point[0], point[1], k)));
+            }
+        }
+        // far outside the map: falls back to visiting every occupied cell
+        assertEquals(bruteForce(breweries, 51.5, -0.1, 5), ids(index.nearest(51.5, -0.1, 5)));
+    }
+
+    // ========== SHARED WITH BrewerySpatialIndexLoadTests ==========
+
+    static List<Brewery> breweriesAroundPortland(Random random, int count) {
+        List<Brewery> breweries = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            Brewery brewery = new Brewery(id, "Brewery " + id, id + " Main St, Portland, ME", "Ale");
+            brewery.setLatitude(43.4 + random.nextDouble() * 0.6);     // ~67 km north-south
+            brewery.setLongitude(-70.6 + random.nextDouble() * 0.6);   // ~48 km east-west
+            breweries.add(brewery);
+        }
+        return breweries;
+    }
+
+    static double[][] pointsAroundPortland(Random random, int count) {
+        double[][] points = new double[count][2];
+        for (double[] point : points) {
+            point[0] = 43.4 + random.nextDouble() * 0.6;
+            point[1] = -70.6 + random.nextDouble() * 0.6;
+        }
+        return points;
+    }
+
+    static List<Integer> bruteForce(List<Brewery> breweries, double lat, double lon, int k) {
+        return breweries.stream()
+                .map(b -> new BrewerySpatialIndex.Hit(b.getBreweryId(),
+                        BrewerySpatialIndex.distanceKm(lat, lon, b.getLatitude(), b.getLongitude())))
+                .sorted(Comparator.comparingDouble(BrewerySpatialIndex.Hit::distanceKm))
+                .limit(k)
+                .map(BrewerySpatialIndex.Hit::breweryId)
+                .toList();
+    }
+
+    static List<Integer> ids(List<BrewerySpatialIndex.Hit> nearby) {
+        return nearby.stream().map(BrewerySpatialIndex.Hit::breweryId).toList();
+    }
+}
@@ -0,0 +1,105 @@
+package com.brewpubs.app.services;
+
+import com.brewpubs.app.mappers.BreweryInvalidationMapper;
+import com.brewpubs.app.models.BreweryInvalidation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows that commit out of id order are still delivered, exactly once, and a listener that throws
+ * doesn't stop the others (the log is an in-memory map standing in for BREWERY_INVALIDATIONS)
+ */
+class DatabasePollingInvalidationBusTests {
+
+    @Test
+    void rowCommittedAfterAHigherIdIsStillDelivered() {
+        InMemoryLog log = new InMemoryLog();
+        DatabasePollingInvalidationBus bus = new DatabasePollingInvalidationBus(log, "reader", 20, 600_000, 60_000);
+        List<Integer> delivered = new ArrayList<>();
+        bus.subscribe(invalidation -> delivered.add(invalidation.getBreweryId()));
+
+        log.commit(1, 101);
+        log.commit(3, 103);  // id 2 was taken by an insert that hasn't committed yet
+        bus.pollOnce();
+        assertEquals(List.of(101, 103), delivered);
+
+        log.commit(2, 102);  // now it has
+        log.commit(4, 104);
+        bus.pollOnce();
+        bus.pollOnce();      // nothing new: nothing delivered twice
+        assertEquals(List.of(101, 103, 102, 104), delivered);
+        assertEquals(1, bus.getLateDeliveries());
+        assertEquals(4, bus.getLastSeenId());
+    }
+
+    @Test
+    void gapThatNeverFillsIsDroppedAfterTheTimeout() throws InterruptedException {
+        InMemoryLog log = new InMemoryLog();
+        DatabasePollingInvalidationBus bus = new DatabasePollingInvalidationBus(log, "reader", 20, 600_000, 0);
+        List<Integer> delivered = new ArrayList<>();
+        bus.subscribe(invalidation -> delivered.add(invalidation.getBreweryId()));
+
+        log.commit(2, 102);  // id 1 rolled back
+        bus.pollOnce();
+        Thread.sleep(5);
+        bus.pollOnce();
+        assertEquals(1, bus.getGapsDropped());
+        assertEquals(List.of(102), delivered);
+    }
+
+    @Test
+    void failingListenerIsCountedAndTheRestOfTheBatchStillArrives() {
+        InMemoryLog log = new InMemoryLog();
+        DatabasePollingInvalidationBus bus = new DatabasePollingInvalidationBus(log, "reader", 20, 600_000, 60_000);
+        List<Integer> delivered = new ArrayList<>();
+        bus.subscribe(invalidation -> {
+            if (invalidation.getBreweryId() == 101) {
+                throw new IllegalStateException("refresh failed");
+            }
+        });
+        bus.subscribe(invalidation -> delivered.add(invalidation.getBreweryId()));
+
+        log.commit(1, 101);
+        log.commit(2, 102);
+        bus.pollOnce();  // must not throw
+
+        assertEquals(List.of(101, 102), delivered);
+        assertEquals(List.of(1L, 0L), bus.getListenerErrors());
+        assertEquals(2, bus.getLastSeenId());
+    }
+
+    private static final class InMemoryLog implements BreweryInvalidationMapper {
+        private final TreeMap<Long, BreweryInvalidation> rows = new TreeMap<>();
+
+        void commit(long id, int breweryId) {
+            BreweryInvalidation invalidation = new BreweryInvalidation("writer", breweryId, System.currentTimeMillis());
+            invalidation.setInvalidationId(id);
+            rows.put(id, invalidation);
+        }
+
+        @Override
+        public int insert(BreweryInvalidation invalidation) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<BreweryInvalidation> findAfter(long afterId, int limit) {
+            return rows.tailMap(afterId, false).values().stream().limit(limit).toList();
+        }
+
+        @Override
+        public long findLastId() {
+            return rows.isEmpty() ? 0 : rows.lastKey();
+        }
+
+        @Override
+        public int deleteOlderThan(long before) {
+            return 0;
+        }
+    }
+}
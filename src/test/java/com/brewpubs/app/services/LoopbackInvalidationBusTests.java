@@ -0,0 +1,56 @@
+package com.brewpubs.app.services;
+
+import com.brewpubs.app.models.BreweryInvalidation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A listener that throws is counted on the receiving bus; the publisher and the other listeners
+ * never see the exception
+ */
+class LoopbackInvalidationBusTests {
+
+    @Test
+    void failingListenerIsCountedNotRethrown() {
+        LoopbackInvalidationBus a = new LoopbackInvalidationBus("a", "loopback-tests");
+        LoopbackInvalidationBus b = new LoopbackInvalidationBus("b", "loopback-tests");
+        a.join();
+        b.join();
+        try {
+            List<Integer> delivered = new ArrayList<>();
+            b.subscribe(invalidation -> {
+                throw new IllegalStateException("broken subscriber");
+            });
+            b.subscribe(invalidation -> delivered.add(invalidation.getBreweryId()));
+
+            a.publish(7);  // must not throw
+            a.publish(8);
+
+            assertEquals(List.of(7, 8), delivered);
+            assertEquals(List.of(2L, 0L), b.getListenerErrors());
+            assertEquals(2, b.getReceived());
+        } finally {
+            a.leave();
+            b.leave();
+        }
+    }
+
+    @Test
+    void busReceivesNothingBeforeItJoins() {
+        LoopbackInvalidationBus a = new LoopbackInvalidationBus("a", "loopback-tests-join");
+        LoopbackInvalidationBus b = new LoopbackInvalidationBus("b", "loopback-tests-join");
+        List<BreweryInvalidation> delivered = new ArrayList<>();
+        b.subscribe(delivered::add);
+        a.join();
+        try {
+            a.publish(1);
+            assertEquals(0, delivered.size());
+        } finally {
+            a.leave();
+        }
+    }
+}
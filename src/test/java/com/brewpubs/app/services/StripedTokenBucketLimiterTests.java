@@ -0,0 +1,76 @@
+package com.brewpubs.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Token bucket decisions and eviction, on a hand-driven clock
+ */
+class StripedTokenBucketLimiterTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void burstThenRefillAtRate() {
+        StripedTokenBucketLimiter limiter = new StripedTokenBucketLimiter(3, 1.0, 16, 1000, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0L, limiter.tryAcquire("10.0.0.1"));
+        }
+        long wait = limiter.tryAcquire("10.0.0.1");
+        assertTrue(wait > 0 && wait <= SECOND, "next token within a second, was " + wait);
+        assertEquals(0L, limiter.tryAcquire("10.0.0.2"), "other clients are not affected");
+
+        clock.addAndGet(SECOND);
+        assertEquals(0L, limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+        assertEquals(5L, limiter.getAdmitted());
+        assertEquals(2L, limiter.getRejected());
+    }
+
+    @Test
+    void clockReadingBehindTheBucketTakesNoTokensAway() {
+        StripedTokenBucketLimiter limiter = new StripedTokenBucketLimiter(3, 1.0, 1, 1000, clock::get);
+        assertEquals(0L, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0L, limiter.tryAcquire("10.0.0.1"));
+
+        clock.addAndGet(-SECOND);  // a reading older than the bucket's last update
+        assertEquals(0L, limiter.tryAcquire("10.0.0.1"), "the third token is still there");
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+
+        clock.addAndGet(2 * SECOND);  // one second after the last real update → exactly one new token
+        assertEquals(0L, limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+    }
+
+    @Test
+    void idleBucketsAreEvictedOnceFull() {
+        StripedTokenBucketLimiter limiter = new StripedTokenBucketLimiter(2, 1.0, 1, 1000, clock::get);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("10.0.1." + i);
+        }
+        assertEquals(100L, limiter.getTrackedKeys());
+
+        clock.addAndGet(2 * SECOND);  // every bucket full again
+        limiter.tryAcquire("10.0.2.1");
+        assertEquals(1L, limiter.getTrackedKeys());
+        assertEquals(100L, limiter.getEvictions());
+    }
+
+    @Test
+    void trackedKeysNeverExceedTheCap() {
+        StripedTokenBucketLimiter limiter = new StripedTokenBucketLimiter(5, 0.01, 4, 400, clock::get);
+        for (int i = 0; i < 100_000; i++) {
+            limiter.tryAcquire("addr-" + i);
+        }
+        assertTrue(limiter.getTrackedKeys() <= 400, "tracked " + limiter.getTrackedKeys());
+        assertEquals(100_000L, limiter.getAdmitted());
+    }
+}